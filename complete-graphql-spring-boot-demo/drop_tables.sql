@@ -1,5 +1,8 @@
 -- Drop all tables to recreate them with correct schema
+-- (book_tag_entries first: dropping it also drops the book_tags view)
+DROP TABLE IF EXISTS book_tag_entries CASCADE;
 DROP TABLE IF EXISTS book_tags CASCADE;
+DROP TABLE IF EXISTS book_isbns CASCADE;
 DROP TABLE IF EXISTS books CASCADE;
 DROP TABLE IF EXISTS publishers CASCADE;
 DROP TABLE IF EXISTS authors CASCADE;
@@ -0,0 +1,134 @@
+-- Migrate an existing database from the plain books / book_tags tables to the partitioned layout
+-- in schema.sql (PostgreSQL 15+). Run once with psql while the application is stopped:
+--   psql -h localhost -p 5431 -U postgres -f partition_books.sql
+-- The application creates further yearly partitions itself (BookPartitionMaintenance).
+
+BEGIN;
+
+ALTER TABLE book_tags RENAME TO book_tags_unpartitioned;
+ALTER TABLE books RENAME TO books_unpartitioned;
+ALTER TABLE books_unpartitioned RENAME CONSTRAINT fk_book_author TO fk_book_author_unpartitioned;
+ALTER TABLE books_unpartitioned RENAME CONSTRAINT fk_book_publisher TO fk_book_publisher_unpartitioned;
+ALTER TABLE book_tags_unpartitioned RENAME CONSTRAINT fk_book_tags_book TO fk_book_tags_book_unpartitioned;
+ALTER INDEX IF EXISTS idx_books_genre_rating RENAME TO idx_books_genre_rating_unpartitioned;
+ALTER INDEX IF EXISTS idx_books_genre_published RENAME TO idx_books_genre_published_unpartitioned;
+ALTER INDEX IF EXISTS idx_book_tags_tag RENAME TO idx_book_tags_tag_unpartitioned;
+
+CREATE TABLE books (
+    id BIGSERIAL,
+    title VARCHAR(255) NOT NULL,
+    isbn VARCHAR(20) NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    published_date TIMESTAMP NOT NULL,
+    genre VARCHAR(50) NOT NULL,
+    description TEXT,
+    rating DECIMAL(3,2),
+    rating_count INTEGER NOT NULL DEFAULT 0,
+    author_id BIGINT NOT NULL,
+    publisher_id BIGINT NOT NULL,
+    CONSTRAINT pk_books PRIMARY KEY (id, published_date),
+    CONSTRAINT fk_book_author FOREIGN KEY (author_id) REFERENCES authors(id),
+    CONSTRAINT fk_book_publisher FOREIGN KEY (publisher_id) REFERENCES publishers(id)
+) PARTITION BY RANGE (published_date);
+
+CREATE TABLE books_default PARTITION OF books DEFAULT;
+
+CREATE TABLE book_tag_entries (
+    book_id BIGINT NOT NULL,
+    published_date TIMESTAMP NOT NULL,
+    tag VARCHAR(100) NOT NULL,
+    CONSTRAINT pk_book_tag_entries PRIMARY KEY (book_id, tag, published_date),
+    CONSTRAINT fk_book_tags_book FOREIGN KEY (book_id, published_date)
+        REFERENCES books (id, published_date) ON DELETE CASCADE ON UPDATE CASCADE
+) PARTITION BY RANGE (published_date);
+
+CREATE TABLE book_tag_entries_default PARTITION OF book_tag_entries DEFAULT;
+
+-- One partition per year that has books, so nothing existing ends up in the DEFAULT partitions
+DO $$
+DECLARE
+    y INTEGER;
+BEGIN
+    FOR y IN SELECT DISTINCT EXTRACT(YEAR FROM published_date)::INTEGER FROM books_unpartitioned ORDER BY 1 LOOP
+        EXECUTE format('CREATE TABLE books_y%s PARTITION OF books FOR VALUES FROM (%L) TO (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+        EXECUTE format('CREATE TABLE book_tag_entries_y%s PARTITION OF book_tag_entries FOR VALUES FROM (%L) TO (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    END LOOP;
+END;
+$$;
+
+-- Copy the data before creating indexes and triggers: bulk loading is faster without them
+INSERT INTO books (id, title, isbn, price, published_date, genre, description, rating, rating_count,
+                   author_id, publisher_id)
+SELECT id, title, isbn, price, published_date, genre, description, rating, rating_count, author_id, publisher_id
+FROM books_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('books', 'id'), COALESCE((SELECT MAX(id) FROM books), 0) + 1, false);
+
+INSERT INTO book_tag_entries (book_id, published_date, tag)
+SELECT t.book_id, b.published_date, t.tag
+FROM book_tags_unpartitioned t JOIN books_unpartitioned b ON b.id = t.book_id;
+
+CREATE TABLE book_isbns (
+    isbn VARCHAR(20) PRIMARY KEY,
+    book_id BIGINT NOT NULL
+);
+INSERT INTO book_isbns (isbn, book_id) SELECT isbn, id FROM books;
+
+CREATE INDEX idx_books_genre_rating ON books (genre, rating DESC);
+CREATE INDEX idx_books_genre_published ON books (genre, published_date DESC);
+CREATE INDEX idx_book_tags_tag ON book_tag_entries (tag, book_id);
+
+CREATE OR REPLACE FUNCTION sync_book_isbn() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        DELETE FROM book_isbns WHERE isbn = OLD.isbn AND book_id = OLD.id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        INSERT INTO book_isbns (isbn, book_id) VALUES (NEW.isbn, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_books_isbn_insert_delete AFTER INSERT OR DELETE ON books
+    FOR EACH ROW EXECUTE FUNCTION sync_book_isbn();
+CREATE TRIGGER trg_books_isbn_update AFTER UPDATE OF isbn ON books
+    FOR EACH ROW WHEN (OLD.isbn IS DISTINCT FROM NEW.isbn) EXECUTE FUNCTION sync_book_isbn();
+
+DROP TABLE book_tags_unpartitioned;
+DROP TABLE books_unpartitioned;
+
+CREATE VIEW book_tags AS SELECT book_id, tag FROM book_tag_entries;
+
+CREATE OR REPLACE FUNCTION write_book_tags() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO book_tag_entries (book_id, published_date, tag)
+        SELECT b.id, b.published_date, NEW.tag FROM books b WHERE b.id = NEW.book_id;
+        IF NOT FOUND THEN
+            RAISE foreign_key_violation USING MESSAGE = 'book ' || NEW.book_id || ' does not exist';
+        END IF;
+        RETURN NEW;
+    END IF;
+    DELETE FROM book_tag_entries WHERE book_id = OLD.book_id AND tag = OLD.tag;
+    RETURN OLD;
+END;
+$$;
+
+CREATE TRIGGER trg_book_tags_write INSTEAD OF INSERT OR DELETE ON book_tags
+    FOR EACH ROW EXECUTE FUNCTION write_book_tags();
+
+CREATE OR REPLACE PROCEDURE detach_books_year(year INTEGER) LANGUAGE plpgsql AS $$
+BEGIN
+    EXECUTE format('DELETE FROM book_isbns k USING %I b WHERE k.book_id = b.id', 'books_y' || year);
+    EXECUTE format('ALTER TABLE book_tag_entries DETACH PARTITION %I', 'book_tag_entries_y' || year);
+    EXECUTE format('ALTER TABLE books DETACH PARTITION %I', 'books_y' || year);
+END;
+$$;
+
+COMMIT;
+
+ANALYZE books;
+ANALYZE book_tag_entries;
@@ -0,0 +1,85 @@
+package com.example.graphqldemo.benchmark;
+
+import com.example.graphqldemo.entity.Author;
+import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.entity.Publisher;
+import com.example.graphqldemo.scalar.DateTimeScalar;
+import graphql.GraphQL;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.TypeResolver;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shared fixtures for the benchmarks: an in-memory catalog and the application schema
+ * executed by plain graphql-java, without Spring or a database
+ */
+final class BenchmarkCatalog {
+
+    private BenchmarkCatalog() {}
+
+    static List<Book> books(int count) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Author author = new Author("First" + i, "Last" + i, "author" + i + "@example.com",
+                    LocalDateTime.of(1950 + i % 40, 1 + i % 12, 1 + i % 28, 0, 0), "Biography " + i);
+            author.setId((long) i + 1);
+            authors.add(author);
+        }
+        Publisher publisher = new Publisher("Benchmark Press", "1 Main Street", "https://example.com");
+        publisher.setId(1L);
+
+        Genre[] genres = Genre.values();
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle("Book title " + i);
+            book.setIsbn(String.format("978-%010d", i));
+            book.setPrice(BigDecimal.valueOf(1000 + i * 37L % 5000, 2));
+            book.setPublishedDate(LocalDateTime.of(1990 + i % 35, 1 + i % 12, 1 + i % 28, 0, 0));
+            book.setGenre(genres[i % genres.length]);
+            book.setDescription("Description of book " + i);
+            book.setRating(1 + (i % 400) / 100.0);
+            book.setRatingCount(i % 250);
+            book.setTags(List.of("tag" + i % 20, "tag" + i % 7));
+            book.setAuthor(authors.get(i % authors.size()));
+            book.setPublisher(publisher);
+            books.add(book);
+        }
+        return books;
+    }
+
+    /**
+     * Build the application schema with its scalars; the caller adds the data fetchers
+     */
+    static GraphQL graphQL(Consumer<RuntimeWiring.Builder> wiring) throws IOException {
+        TypeDefinitionRegistry registry;
+        try (InputStream in = BenchmarkCatalog.class.getResourceAsStream("/graphql/schema.graphqls");
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            registry = new SchemaParser().parse(reader);
+        }
+        TypeResolver byClassName = env -> env.getSchema().getObjectType(env.getObject().getClass().getSimpleName());
+        RuntimeWiring.Builder builder = RuntimeWiring.newRuntimeWiring()
+                .scalar(DateTimeScalar.INSTANCE)
+                .scalar(ExtendedScalars.GraphQLBigDecimal)
+                .type("SearchResult", type -> type.typeResolver(byClassName))
+                .type("Node", type -> type.typeResolver(byClassName));
+        wiring.accept(builder);
+        return GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(registry, builder.build())).build();
+    }
+}
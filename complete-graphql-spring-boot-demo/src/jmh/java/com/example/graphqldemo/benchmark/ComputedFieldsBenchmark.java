@@ -0,0 +1,67 @@
+package com.example.graphqldemo.benchmark;
+
+import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.execution.RequestClock;
+import com.example.graphqldemo.resolver.BookResolver;
+import graphql.GraphQLContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the computed fields (Book.displayPrice, Book.ageInYears, Author.age) per book of a
+ * 1000-book response: the entity methods, which read the clock and format on every call, versus
+ * {@link BookResolver} with a {@link RequestClock} snapshot and cached price strings.
+ *
+ * Run with the GC profiler to see allocation per book (gc.alloc.rate.norm):
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ComputedFieldsBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ComputedFieldsBenchmark.BOOKS)
+public class ComputedFieldsBenchmark {
+
+    static final int BOOKS = 1000;
+
+    private List<Book> books;
+
+    private BookResolver resolver;
+
+    private GraphQLContext context;
+
+    @Setup
+    public void setup() {
+        books = BenchmarkCatalog.books(BOOKS);
+        resolver = new BookResolver();
+        context = GraphQLContext.newContext().of(RequestClock.CONTEXT_KEY, new RequestClock(LocalDateTime.now())).build();
+    }
+
+    @Benchmark
+    public void entityMethods(Blackhole blackhole) {
+        for (Book book : books) {
+            blackhole.consume(book.getDisplayPrice());
+            blackhole.consume(book.getAgeInYears());
+            blackhole.consume(book.getAuthor().getAge());
+        }
+    }
+
+    @Benchmark
+    public void requestClockResolver(Blackhole blackhole) {
+        for (Book book : books) {
+            blackhole.consume(resolver.displayPrice(book));
+            blackhole.consume(resolver.ageInYears(book, context));
+            blackhole.consume(resolver.age(book.getAuthor(), context));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.graphqldemo.benchmark;
+
+import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.execution.RoleScopedExecutionGraphQlService;
+import com.example.graphqldemo.resolver.EntityFieldFetchers;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of role-based field visibility per request: the same query over 100 books executed by
+ * Spring's plain service on the unsecured schema ("unsecured"), and by
+ * {@link RoleScopedExecutionGraphQlService} for an anonymous caller ("public", filtered view) and
+ * a caller whose API key carries USER ("user", full view). Scores are microseconds per request.
+ *
+ * Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FieldVisibilityBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FieldVisibilityBenchmark {
+
+    private static final String API_KEY = "benchmark-key";
+
+    // Only fields every caller may see, so all variants do the same work
+    private static final String QUERY =
+            "{ books { id title price publishedDate genre author { id firstName lastName fullName } " +
+            "publisher { name website } } }";
+
+    @Param({"unsecured", "public", "user"})
+    public String caller;
+
+    private ExecutionGraphQlService service;
+
+    private WebGraphQlRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Book> books = BenchmarkCatalog.books(100);
+        GraphQL graphQL = BenchmarkCatalog.graphQL(builder -> {
+            builder.type("Query", type -> type.dataFetcher("books", env -> books));
+            builder.type("Book", type -> type
+                    .dataFetcher("author", env -> env.<Book>getSource().getAuthor())
+                    .dataFetcher("publisher", env -> env.<Book>getSource().getPublisher()));
+            EntityFieldFetchers.register(builder);
+        });
+        GraphQlSource source = new GraphQlSource() {
+            @Override
+            public GraphQL graphQl() {
+                return graphQL;
+            }
+
+            @Override
+            public GraphQLSchema schema() {
+                return graphQL.getGraphQLSchema();
+            }
+        };
+        service = "unsecured".equals(caller) ? new DefaultExecutionGraphQlService(source)
+                : new RoleScopedExecutionGraphQlService(source, List.of(), Map.of(API_KEY, Set.of("USER")));
+
+        HttpHeaders headers = new HttpHeaders();
+        if ("user".equals(caller)) {
+            headers.setBearerAuth(API_KEY);
+        }
+        request = new WebGraphQlRequest(URI.create("http://localhost/graphql"), headers, new LinkedMultiValueMap<>(),
+                Map.of(), Map.of("query", QUERY), "1", Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse booksRequest() {
+        ExecutionGraphQlResponse response = service.execute(request).block();
+        if (!response.getErrors().isEmpty()) {
+            throw new IllegalStateException(response.getErrors().toString());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.graphqldemo.loadtest;
+
+import com.example.graphqldemo.loadtest.LoadStats.Outcome;
+import com.example.graphqldemo.loadtest.OperationMix.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Open-model load generator for /graphql
+ * Requests arrive as a Poisson process at --rate per second whether or not earlier ones have
+ * completed, like independent users, so a slow server faces a growing backlog instead of a politely
+ * slowed client. Operations are drawn from a weighted mix of sample_queries.graphql with variables
+ * drawn from the app's own catalog. A warm-up phase runs at the same rate and is not reported.
+ *
+ * Run against an app started separately:
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rate 100 --duration 60s --mix browse"
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        OperationMix mix = OperationMix.load(options.queries, options.mix);
+        LoadGenerator generator = new LoadGenerator(options);
+        VariableGenerator variables = new VariableGenerator(generator.fetchSeedData());
+        RandomGenerator random = new SplittableRandom(options.seed);
+        for (Operation operation : mix.operations()) {
+            // Fails before any load is sent if the mix has an operation we cannot fill in
+            variables.variablesFor(operation.definition(), random);
+        }
+
+        System.out.printf("=== Load test: %s mix (%d operations), %.1f req/s, %ss warm-up, %ss measured, %s ===%n",
+                mix.name(), mix.operations().size(), options.rate, options.warmup.toSeconds(),
+                options.duration.toSeconds(), options.url);
+        if (!options.warmup.isZero()) {
+            generator.run(mix, variables, random, options.warmup);
+        }
+        LoadStats stats = generator.run(mix, variables, random, options.duration);
+        stats.print(System.out, "Results over " + options.duration.toSeconds() + "s", options.duration);
+
+        if (options.out != null) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("finishedAt", Instant.now().toString());
+            run.put("url", options.url.toString());
+            run.put("mix", mix.name());
+            run.put("rate", options.rate);
+            run.put("durationSeconds", options.duration.toSeconds());
+            run.put("seed", options.seed);
+            stats.write(options.out, run, options.duration);
+            System.out.println("=== Results written to " + options.out + " ===");
+        }
+    }
+
+    private LoadStats run(OperationMix mix, VariableGenerator variables, RandomGenerator random, Duration length)
+            throws InterruptedException {
+        LoadStats stats = new LoadStats();
+        double meanGapNanos = 1_000_000_000 / options.rate;
+        long end = System.nanoTime() + length.toNanos();
+        long scheduled = System.nanoTime();
+        while (true) {
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.next(random);
+            send(operation, variables.variablesFor(operation.definition(), random), scheduled, stats);
+        }
+        long drainDeadline = System.nanoTime() + options.timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    private void send(Operation operation, Map<String, Object> variables, long scheduled, LoadStats stats) {
+        if (inFlight.get() >= options.maxInFlight) {
+            stats.record(operation.name(), Outcome.DROPPED, 0, null);
+            return;
+        }
+        HttpRequest request;
+        try {
+            request = request(Map.of("query", operation.document(), "operationName", operation.name(),
+                    "variables", variables));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - scheduled;
+            inFlight.decrementAndGet();
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                stats.record(operation.name(), Outcome.IO_ERROR, latency, cause.toString());
+            } else if (response.statusCode() != 200) {
+                stats.record(operation.name(), Outcome.HTTP_ERROR, latency, "HTTP " + response.statusCode());
+            } else {
+                String error = firstError(response.body());
+                stats.record(operation.name(), error == null ? Outcome.OK : Outcome.GRAPHQL_ERROR, latency, error);
+            }
+        });
+    }
+
+    private JsonNode fetchSeedData() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request(Map.of("query", VariableGenerator.SEED_QUERY)),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seed query to " + options.url + " failed: HTTP " + response.statusCode());
+        }
+        String error = firstError(response.body());
+        if (error != null) {
+            throw new IllegalStateException("Seed query to " + options.url + " failed: " + error);
+        }
+        return JSON.readTree(response.body()).path("data");
+    }
+
+    private HttpRequest request(Map<String, Object> body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(options.url)
+                .timeout(options.timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+        if (options.apiKey != null) {
+            request.header("Authorization", "Bearer " + options.apiKey);
+        }
+        return request.build();
+    }
+
+    /**
+     * First GraphQL error, or failed mutation payload ("success": false), in a response body
+     */
+    private static String firstError(byte[] body) {
+        JsonNode response;
+        try {
+            response = JSON.readTree(body);
+        } catch (IOException e) {
+            return "Unreadable response: " + e.getMessage();
+        }
+        JsonNode errors = response.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            return errors.get(0).path("message").asText();
+        }
+        for (JsonNode field : response.path("data")) {
+            for (JsonNode payload : field.isArray() ? field : JSON.createArrayNode().add(field)) {
+                if (payload.path("success").isBoolean() && !payload.path("success").asBoolean()) {
+                    return "Payload error: " + payload.path("errors").path(0).path("message").asText();
+                }
+            }
+        }
+        return null;
+    }
+}
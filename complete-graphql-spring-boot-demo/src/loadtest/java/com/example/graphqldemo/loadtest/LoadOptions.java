@@ -0,0 +1,59 @@
+package com.example.graphqldemo.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Command line options of the load generator
+ * Given as "--name value" pairs, e.g. --rate 200 --duration 60s --mix browse.
+ */
+final class LoadOptions {
+
+    URI url = URI.create("http://localhost:8080/graphql");
+    Path queries = Path.of("sample_queries.graphql");
+    String mix = "browse";
+    double rate = 50;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    Duration timeout = Duration.ofSeconds(10);
+    int maxInFlight = 2000;
+    String apiKey;
+    long seed = 42;
+    Path out;
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url" -> options.url = URI.create(value);
+                case "--queries" -> options.queries = Path.of(value);
+                case "--mix" -> options.mix = value;
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--warmup" -> options.warmup = duration(value);
+                case "--duration" -> options.duration = duration(value);
+                case "--timeout" -> options.timeout = duration(value);
+                case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "--api-key" -> options.apiKey = value;
+                case "--seed" -> options.seed = Long.parseLong(value);
+                case "--out" -> options.out = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return options;
+    }
+
+    // "30s", "2m" or ISO-8601 ("PT30S")
+    private static Duration duration(String value) {
+        String upper = value.toUpperCase(Locale.ROOT);
+        return Duration.parse(upper.startsWith("P") ? upper : "PT" + upper);
+    }
+}
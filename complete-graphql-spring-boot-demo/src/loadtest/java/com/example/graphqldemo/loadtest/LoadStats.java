@@ -0,0 +1,122 @@
+package com.example.graphqldemo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one phase of a run, per operation
+ * Latency is measured from the request's scheduled send time, not the actual one, so a stalled
+ * client or a full connection pool shows up as latency instead of silently lowering the rate.
+ */
+final class LoadStats {
+
+    enum Outcome {
+        OK,
+        // Transport failure or timeout
+        IO_ERROR,
+        HTTP_ERROR,
+        // "errors" in the body, or a mutation payload with "success": false
+        GRAPHQL_ERROR,
+        // Not sent: the client already had --max-in-flight requests outstanding
+        DROPPED
+    }
+
+    private static final class OperationStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final Map<Outcome, LongAdder> outcomes = new ConcurrentHashMap<>();
+        volatile String firstError;
+
+        long count(Outcome outcome) {
+            LongAdder adder = outcomes.get(outcome);
+            return adder != null ? adder.sum() : 0;
+        }
+
+        long total() {
+            return outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private final Map<String, OperationStats> byOperation = new ConcurrentHashMap<>();
+    private final OperationStats all = new OperationStats();
+
+    void record(String operation, Outcome outcome, long latencyNanos, String error) {
+        OperationStats stats = byOperation.computeIfAbsent(operation, name -> new OperationStats());
+        for (OperationStats target : List.of(stats, all)) {
+            target.outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+            if (outcome != Outcome.DROPPED) {
+                target.latencyMicros.recordValue(Math.max(1, latencyNanos / 1000));
+            }
+            if (error != null && target.firstError == null) {
+                target.firstError = error;
+            }
+        }
+    }
+
+    void print(PrintStream out, String title, Duration duration) {
+        out.println("=== " + title + " ===");
+        out.printf("%-34s %8s %9s %7s %9s %9s %9s %9s%n",
+                "operation", "sent", "ok/s", "err%", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        new TreeMap<>(byOperation).forEach((name, stats) -> printRow(out, name, stats, duration));
+        printRow(out, "TOTAL", all, duration);
+        new TreeMap<>(byOperation).forEach((name, stats) -> {
+            if (stats.firstError != null) {
+                out.println("first error in " + name + ": " + stats.firstError);
+            }
+        });
+    }
+
+    void write(Path file, Map<String, Object> run, Duration duration) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>(run);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        new TreeMap<>(byOperation).forEach((name, stats) -> operations.put(name, summary(stats, duration)));
+        report.put("total", summary(all, duration));
+        report.put("operations", operations);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static void printRow(PrintStream out, String name, OperationStats stats, Duration duration) {
+        Map<String, Object> s = summary(stats, duration);
+        out.printf("%-34s %8d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f%n", name, s.get("sent"), s.get("throughput"),
+                s.get("errorPercent"), s.get("p50Ms"), s.get("p99Ms"), s.get("p999Ms"), s.get("maxMs"));
+    }
+
+    private static Map<String, Object> summary(OperationStats stats, Duration duration) {
+        long sent = stats.total();
+        long ok = stats.count(Outcome.OK);
+        double seconds = duration.toMillis() / 1000.0;
+        Histogram h = stats.latencyMicros;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("sent", sent);
+        summary.put("throughput", ok / seconds);
+        summary.put("errorPercent", sent == 0 ? 0.0 : 100.0 * (sent - ok) / sent);
+        Map<String, Long> errors = new LinkedHashMap<>();
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome != Outcome.OK && stats.count(outcome) > 0) {
+                errors.put(outcome.name(), stats.count(outcome));
+            }
+        }
+        summary.put("errors", errors);
+        summary.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+        summary.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMs", h.getMaxValue() / 1000.0);
+        return summary;
+    }
+}
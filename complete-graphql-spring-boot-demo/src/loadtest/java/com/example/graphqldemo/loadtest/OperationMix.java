@@ -0,0 +1,139 @@
+package com.example.graphqldemo.loadtest;
+
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted selection of operations from sample_queries.graphql
+ * A mix is a properties file of "OperationName=weight"; operations it does not list are never sent.
+ * Each operation is sent as its own document, with just the fragments it uses.
+ */
+final class OperationMix {
+
+    record Operation(String name, OperationDefinition definition, String document) {
+    }
+
+    private final String name;
+    private final Operation[] operations;
+    private final double[] cumulativeWeights;
+
+    private OperationMix(String name, Operation[] operations, double[] cumulativeWeights) {
+        this.name = name;
+        this.operations = operations;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    /**
+     * @param mix a file path, or the name of a mix under mixes/ on the classpath
+     */
+    static OperationMix load(Path queries, String mix) throws IOException {
+        Document document = Parser.parse(Files.readString(queries, StandardCharsets.UTF_8));
+        Map<String, OperationDefinition> definitions = new HashMap<>();
+        document.getDefinitionsOfType(OperationDefinition.class).forEach(op -> definitions.put(op.getName(), op));
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        document.getDefinitionsOfType(FragmentDefinition.class).forEach(f -> fragments.put(f.getName(), f));
+
+        // Sorted so the same mix and seed always produce the same request sequence
+        Map<String, Double> weights = new TreeMap<>();
+        readWeights(mix).forEach((key, value) -> weights.put(key.toString(), Double.parseDouble(value.toString())));
+
+        List<Operation> operations = new ArrayList<>();
+        List<Double> cumulative = new ArrayList<>();
+        double total = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            OperationDefinition definition = definitions.get(entry.getKey());
+            if (definition == null) {
+                throw new IllegalArgumentException("Mix " + mix + " names " + entry.getKey()
+                        + ", which is not an operation in " + queries);
+            }
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            total += entry.getValue();
+            operations.add(new Operation(entry.getKey(), definition, documentFor(definition, fragments)));
+            cumulative.add(total);
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Mix " + mix + " has no operation with a positive weight");
+        }
+        double[] cumulativeWeights = new double[cumulative.size()];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] = cumulative.get(i) / total;
+        }
+        return new OperationMix(mix, operations.toArray(Operation[]::new), cumulativeWeights);
+    }
+
+    Operation next(RandomGenerator random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (r < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    List<Operation> operations() {
+        return List.of(operations);
+    }
+
+    String name() {
+        return name;
+    }
+
+    private static Properties readWeights(String mix) throws IOException {
+        Properties weights = new Properties();
+        Path path = Path.of(mix);
+        if (Files.isRegularFile(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                weights.load(reader);
+            }
+            return weights;
+        }
+        try (InputStream in = OperationMix.class.getResourceAsStream("/mixes/" + mix + ".properties")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No mix file " + mix + " and no mixes/" + mix + ".properties");
+            }
+            weights.load(in);
+        }
+        return weights;
+    }
+
+    private static String documentFor(OperationDefinition operation, Map<String, FragmentDefinition> fragments) {
+        Set<String> used = new LinkedHashSet<>();
+        collectSpreads(operation, fragments, used);
+        StringBuilder document = new StringBuilder(AstPrinter.printAstCompact(operation));
+        used.forEach(name -> document.append(' ').append(AstPrinter.printAstCompact(fragments.get(name))));
+        return document.toString();
+    }
+
+    private static void collectSpreads(Node<?> node, Map<String, FragmentDefinition> fragments, Set<String> used) {
+        if (node instanceof FragmentSpread spread && used.add(spread.getName())) {
+            collectSpreads(fragments.get(spread.getName()), fragments, used);
+        }
+        for (Node<?> child : node.getChildren()) {
+            collectSpreads(child, fragments, used);
+        }
+    }
+}
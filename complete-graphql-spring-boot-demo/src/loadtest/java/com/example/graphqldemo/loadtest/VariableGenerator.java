@@ -0,0 +1,163 @@
+package com.example.graphqldemo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import graphql.language.ListType;
+import graphql.language.NonNullType;
+import graphql.language.OperationDefinition;
+import graphql.language.Type;
+import graphql.language.TypeName;
+import graphql.language.VariableDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random operation variables drawn from the catalog of the app under test
+ * Values are chosen by variable name (ids, search terms, prefixes) or, failing that, by input type,
+ * so a new sample operation with the usual variable names needs no code here. Created books and
+ * authors get ISBNs and emails unique to the run.
+ */
+final class VariableGenerator {
+
+    // Fetched once at startup; the pools are what the randomized variables are drawn from
+    static final String SEED_QUERY = "query LoadTestSeed { books(limit: 1000) { id title } " +
+            "authors(limit: 1000) { id } publishers { id } tags(first: 100) { value } }";
+
+    private static final String[] GENRES = {"FICTION", "NON_FICTION", "SCIENCE_FICTION", "MYSTERY", "ROMANCE",
+            "THRILLER", "BIOGRAPHY", "HISTORY", "TECHNOLOGY"};
+
+    private final List<String> bookIds = new ArrayList<>();
+    private final List<String> titleWords = new ArrayList<>();
+    private final List<String> authorIds = new ArrayList<>();
+    private final List<String> publisherIds = new ArrayList<>();
+    private final List<String> tags = new ArrayList<>();
+
+    private final long runId = System.currentTimeMillis() / 1000 % 10_000_000;
+    private final AtomicLong created = new AtomicLong();
+
+    VariableGenerator(JsonNode seedData) {
+        Set<String> words = new LinkedHashSet<>();
+        for (JsonNode book : seedData.path("books")) {
+            bookIds.add(book.path("id").asText());
+            for (String word : book.path("title").asText().split("\\W+")) {
+                if (word.length() >= 3) {
+                    words.add(word);
+                }
+            }
+        }
+        titleWords.addAll(words);
+        seedData.path("authors").forEach(author -> authorIds.add(author.path("id").asText()));
+        seedData.path("publishers").forEach(publisher -> publisherIds.add(publisher.path("id").asText()));
+        seedData.path("tags").forEach(tag -> tags.add(tag.path("value").asText()));
+        if (bookIds.isEmpty() || authorIds.isEmpty() || publisherIds.isEmpty()) {
+            throw new IllegalStateException("The app under test has no books, authors or publishers to draw from");
+        }
+    }
+
+    /**
+     * Fails on a required variable it cannot generate, so a mix is checked before the run starts
+     */
+    Map<String, Object> variablesFor(OperationDefinition operation, RandomGenerator random) {
+        Map<String, Object> variables = new HashMap<>();
+        for (VariableDefinition definition : operation.getVariableDefinitions()) {
+            Object value = valueFor(definition.getName(), definition.getType(), random);
+            if (value != null) {
+                variables.put(definition.getName(), value);
+            } else if (definition.getType() instanceof NonNullType && definition.getDefaultValue() == null) {
+                throw new IllegalStateException("No generator for required variable $" + definition.getName()
+                        + " of " + operation.getName());
+            }
+        }
+        return variables;
+    }
+
+    private Object valueFor(String name, Type<?> type, RandomGenerator random) {
+        switch (name) {
+            case "id", "bookId":
+                return pick(bookIds, random);
+            case "ids":
+                return List.of(pick(bookIds, random), pick(bookIds, random), pick(bookIds, random));
+            case "query", "searchQuery":
+                return pick(titleWords, random);
+            case "prefix":
+                String word = pick(titleWords, random);
+                return word.substring(0, 3).toLowerCase(Locale.ROOT);
+            case "withSearch":
+                return random.nextBoolean();
+            case "limit":
+                return 5 + random.nextInt(16);
+            case "offset":
+                return random.nextInt(50);
+            case "score":
+                return 1 + random.nextInt(5);
+            case "minPrice":
+                return 10 + random.nextInt(40);
+            default:
+                break;
+        }
+        boolean list = unwrapNonNull(type) instanceof ListType;
+        return switch (typeName(type)) {
+            case "Genre" -> pick(GENRES, random);
+            case "BookFilter" -> bookFilter(random);
+            case "BookInput" -> list ? List.of(bookInput(random), bookInput(random), bookInput(random)) : bookInput(random);
+            case "AuthorInput" -> list ? List.of(authorInput(), authorInput()) : authorInput();
+            default -> null;
+        };
+    }
+
+    private Map<String, Object> bookFilter(RandomGenerator random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> Map.of("genre", pick(GENRES, random));
+            case 1 -> Map.of("minPrice", 10 + random.nextInt(30), "maxPrice", 50 + random.nextInt(30));
+            case 2 -> Map.of("tagsAny", tags.isEmpty() ? List.of("Java") : List.of(pick(tags, random)));
+            default -> Map.of("title", pick(titleWords, random));
+        };
+    }
+
+    private Map<String, Object> bookInput(RandomGenerator random) {
+        long n = created.incrementAndGet();
+        Map<String, Object> input = new HashMap<>();
+        input.put("title", "Load Test " + pick(titleWords, random) + " " + n);
+        input.put("isbn", String.format("979-%d%06d", runId, n));
+        input.put("price", 10 + random.nextInt(60) + 0.99);
+        input.put("publishedDate", String.format("%d-%02d-15T10:00:00", 2001 + random.nextInt(24), 1 + random.nextInt(12)));
+        input.put("authorId", pick(authorIds, random));
+        input.put("publisherId", pick(publisherIds, random));
+        input.put("genre", pick(GENRES, random));
+        input.put("description", "Created by the load generator");
+        return input;
+    }
+
+    private Map<String, Object> authorInput() {
+        long n = created.incrementAndGet();
+        return Map.of("firstName", "Load", "lastName", "Tester" + n,
+                "email", "load-" + runId + "-" + n + "@example.com");
+    }
+
+    private static Type<?> unwrapNonNull(Type<?> type) {
+        return type instanceof NonNullType nonNull ? nonNull.getType() : type;
+    }
+
+    private static String typeName(Type<?> type) {
+        Type<?> inner = unwrapNonNull(type);
+        if (inner instanceof ListType list) {
+            return typeName(list.getType());
+        }
+        return ((TypeName) inner).getName();
+    }
+
+    private static String pick(List<String> values, RandomGenerator random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String pick(String[] values, RandomGenerator random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.graphqldemo;
 
+import com.example.graphqldemo.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application class
  * Demonstrates GraphQL integration with Spring Boot
  */
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class GraphqlDemoApplication {
 
     /**
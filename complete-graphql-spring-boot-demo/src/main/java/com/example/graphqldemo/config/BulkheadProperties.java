@@ -0,0 +1,53 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.execution.OperationClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkheads for GraphQL operations, one per {@link OperationClass}
+ * Query root fields are assigned a class in app.graphql.bulkheads.fields (e.g. fields.searchBooks=SEARCH);
+ * unlisted query fields are not limited. Mutation fields are MUTATION unless listed.
+ * Each class is sized under app.graphql.bulkheads.classes.<class>.
+ */
+@ConfigurationProperties(prefix = "app.graphql.bulkheads")
+public class BulkheadProperties {
+    private Map<String, OperationClass> fields = new HashMap<>();
+    private Map<OperationClass, Limit> classes = new EnumMap<>(OperationClass.class);
+
+    public Limit limitFor(OperationClass operationClass) {
+        return classes.getOrDefault(operationClass, new Limit());
+    }
+
+    public static class Limit {
+        private int maxConcurrent = 4;
+        private int maxWaiting = 8;
+        private Duration maxWait = Duration.ofMillis(100);
+        // Suggested to rejected callers; roughly how long a slot usually takes to free up
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        // Getters and Setters
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+        public int getMaxWaiting() { return maxWaiting; }
+        public void setMaxWaiting(int maxWaiting) { this.maxWaiting = maxWaiting; }
+
+        public Duration getMaxWait() { return maxWait; }
+        public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+        public Duration getRetryAfter() { return retryAfter; }
+        public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+    }
+
+    // Getters and Setters
+    public Map<String, OperationClass> getFields() { return fields; }
+    public void setFields(Map<String, OperationClass> fields) { this.fields = fields; }
+
+    public Map<OperationClass, Limit> getClasses() { return classes; }
+    public void setClasses(Map<OperationClass, Limit> classes) { this.classes = classes; }
+}
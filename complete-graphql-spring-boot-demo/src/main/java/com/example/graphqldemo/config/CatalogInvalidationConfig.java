@@ -0,0 +1,32 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.event.CatalogInvalidationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Cluster-wide catalog invalidation
+ * Enabled with app.catalog.invalidation.enabled=true. The listener connects to the primary from
+ * spring.datasource.* directly, outside the pool, and keeps that connection for its lifetime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.catalog.invalidation.enabled")
+@EnableConfigurationProperties(CatalogInvalidationProperties.class)
+public class CatalogInvalidationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CatalogInvalidationBus catalogInvalidationBus(JdbcTemplate jdbcTemplate,
+                                                         ApplicationEventPublisher eventPublisher,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         CatalogInvalidationProperties properties) {
+        return new CatalogInvalidationBus(jdbcTemplate, eventPublisher,
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(), properties.getChannel(), properties.getPollTimeout(),
+                properties.getReconnectDelay(), properties.getKeepaliveInterval());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.graphqldemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide catalog invalidation settings
+ * Every instance sharing a database must use the same channel.
+ */
+@ConfigurationProperties(prefix = "app.catalog.invalidation")
+public class CatalogInvalidationProperties {
+    private String channel = "catalog_changed";
+    private Duration pollTimeout = Duration.ofSeconds(1);
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+    private Duration keepaliveInterval = Duration.ofSeconds(30);
+
+    // Getters and Setters
+    public String getChannel() { return channel; }
+    public void setChannel(String channel) { this.channel = channel; }
+
+    public Duration getPollTimeout() { return pollTimeout; }
+    public void setPollTimeout(Duration pollTimeout) { this.pollTimeout = pollTimeout; }
+
+    public Duration getReconnectDelay() { return reconnectDelay; }
+    public void setReconnectDelay(Duration reconnectDelay) { this.reconnectDelay = reconnectDelay; }
+
+    public Duration getKeepaliveInterval() { return keepaliveInterval; }
+    public void setKeepaliveInterval(Duration keepaliveInterval) { this.keepaliveInterval = keepaliveInterval; }
+}
@@ -0,0 +1,59 @@
+package com.example.graphqldemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Ends a CDS training run once the application is ready
+ * Enabled with -Dapp.cds.training-run=true (see the cds Maven profile). Before exiting it sends one
+ * GraphQL request over HTTP so the request path is loaded too; the JVM then exits normally and
+ * -XX:ArchiveClassesAtExit dumps every class loaded so far into the archive.
+ */
+@Component
+public class CdsTrainingRun {
+
+    private static final Logger log = LoggerFactory.getLogger(CdsTrainingRun.class);
+
+    private static final String WARM_UP_QUERY =
+            "{\"query\":\"{ books(limit: 5) { id title price publishedDate tags author { fullName } publisher { name } } }\"}";
+
+    @Value("${app.cds.training-run:false}")
+    private boolean enabled;
+
+    @Value("${local.server.port:8080}")
+    private int port;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void exitWhenReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/graphql"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(WARM_UP_QUERY))
+                    .build();
+            HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.warn("CDS warm-up request failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("CDS training run complete, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
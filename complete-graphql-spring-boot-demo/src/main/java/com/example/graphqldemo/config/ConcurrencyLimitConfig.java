@@ -0,0 +1,40 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.execution.BulkheadInstrumentation;
+import com.example.graphqldemo.web.RateLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Load shedding for /graphql
+ * Per-client rate limits at the HTTP layer and per-class bulkheads around execution; both reject
+ * with a retry hint instead of letting requests queue for a database connection.
+ */
+@Configuration
+@EnableConfigurationProperties({BulkheadProperties.class, RateLimitProperties.class})
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Metrics: graphql.bulkhead.active, graphql.bulkhead.waiting, graphql.bulkhead.rejected{class}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.graphql.bulkheads.enabled", matchIfMissing = true)
+    public BulkheadInstrumentation bulkheadInstrumentation(BulkheadProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new BulkheadInstrumentation(properties, meterRegistry);
+    }
+
+    /**
+     * Metrics: graphql.ratelimit.requests{outcome=allowed|rejected}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.graphql.rate-limit.enabled", matchIfMissing = true)
+    public RateLimitInterceptor rateLimitInterceptor(RateLimitProperties properties,
+                                                     FieldVisibilityProperties visibilityProperties,
+                                                     MeterRegistry meterRegistry) {
+        return new RateLimitInterceptor(properties, visibilityProperties.getApiKeys().keySet(), meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.graphqldemo.config;
 
+import com.example.graphqldemo.service.BookPartitionMaintenance;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,12 +13,15 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class DatabaseInitializer {
 
     @Bean
-    public CommandLineRunner initDatabase(JdbcTemplate jdbcTemplate) {
+    public CommandLineRunner initDatabase(JdbcTemplate jdbcTemplate, BookPartitionMaintenance partitionMaintenance) {
         return args -> {
             System.out.println("=== Initializing Database Schema ===");
             
             // Drop existing tables
+            // book_tag_entries first: it takes the book_tags view with it
+            jdbcTemplate.execute("DROP TABLE IF EXISTS book_tag_entries CASCADE");
             jdbcTemplate.execute("DROP TABLE IF EXISTS book_tags CASCADE");
+            jdbcTemplate.execute("DROP TABLE IF EXISTS book_isbns CASCADE");
             jdbcTemplate.execute("DROP TABLE IF EXISTS books CASCADE");
             jdbcTemplate.execute("DROP TABLE IF EXISTS publishers CASCADE");
             jdbcTemplate.execute("DROP TABLE IF EXISTS authors CASCADE");
@@ -46,33 +50,106 @@ public class DatabaseInitializer {
                 ")"
             );
             
-            // Create Books table
+            // Create Books table, range-partitioned by published_date
+            // The primary key has to include the partition key; ISBN uniqueness moves to book_isbns.
+            // rating is derived from the exact rating_sum / rating_count on every rating flush
             jdbcTemplate.execute(
                 "CREATE TABLE books (" +
-                "    id BIGSERIAL PRIMARY KEY," +
+                "    id BIGSERIAL," +
                 "    title VARCHAR(255) NOT NULL," +
-                "    isbn VARCHAR(20) UNIQUE NOT NULL," +
+                "    isbn VARCHAR(20) NOT NULL," +
                 "    price DECIMAL(10,2) NOT NULL," +
                 "    published_date TIMESTAMP NOT NULL," +
                 "    genre VARCHAR(50) NOT NULL," +
                 "    description TEXT," +
                 "    rating DECIMAL(3,2)," +
+                "    rating_sum NUMERIC(14,2)," +
+                "    rating_count INTEGER NOT NULL DEFAULT 0," +
                 "    author_id BIGINT NOT NULL," +
                 "    publisher_id BIGINT NOT NULL," +
+                "    CONSTRAINT pk_books PRIMARY KEY (id, published_date)," +
                 "    CONSTRAINT fk_book_author FOREIGN KEY (author_id) REFERENCES authors(id)," +
                 "    CONSTRAINT fk_book_publisher FOREIGN KEY (publisher_id) REFERENCES publishers(id)" +
+                ") PARTITION BY RANGE (published_date)"
+            );
+            jdbcTemplate.execute("CREATE TABLE books_default PARTITION OF books DEFAULT");
+            
+            // Leaderboard indexes (topBooks cold start and refills)
+            jdbcTemplate.execute("CREATE INDEX idx_books_genre_rating ON books (genre, rating DESC)");
+            jdbcTemplate.execute("CREATE INDEX idx_books_genre_published ON books (genre, published_date DESC)");
+            
+            // ISBN registry, kept in step with books by trigger
+            jdbcTemplate.execute(
+                "CREATE TABLE book_isbns (" +
+                "    isbn VARCHAR(20) PRIMARY KEY," +
+                "    book_id BIGINT NOT NULL" +
                 ")"
             );
+            jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION sync_book_isbn() RETURNS trigger LANGUAGE plpgsql AS $$
+                BEGIN
+                    IF TG_OP <> 'INSERT' THEN
+                        DELETE FROM book_isbns WHERE isbn = OLD.isbn AND book_id = OLD.id;
+                    END IF;
+                    IF TG_OP <> 'DELETE' THEN
+                        INSERT INTO book_isbns (isbn, book_id) VALUES (NEW.isbn, NEW.id);
+                    END IF;
+                    RETURN NULL;
+                END;
+                $$""");
+            jdbcTemplate.execute("CREATE TRIGGER trg_books_isbn_insert_delete AFTER INSERT OR DELETE ON books " +
+                "FOR EACH ROW EXECUTE FUNCTION sync_book_isbn()");
+            jdbcTemplate.execute("CREATE TRIGGER trg_books_isbn_update AFTER UPDATE OF isbn ON books " +
+                "FOR EACH ROW WHEN (OLD.isbn IS DISTINCT FROM NEW.isbn) EXECUTE FUNCTION sync_book_isbn()");
             
-            // Create Book Tags table
+            // Create Book Tags storage, partitioned like books
             jdbcTemplate.execute(
-                "CREATE TABLE book_tags (" +
+                "CREATE TABLE book_tag_entries (" +
                 "    book_id BIGINT NOT NULL," +
+                "    published_date TIMESTAMP NOT NULL," +
                 "    tag VARCHAR(100) NOT NULL," +
-                "    CONSTRAINT fk_book_tags_book FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE," +
-                "    PRIMARY KEY (book_id, tag)" +
-                ")"
+                "    CONSTRAINT pk_book_tag_entries PRIMARY KEY (book_id, tag, published_date)," +
+                "    CONSTRAINT fk_book_tags_book FOREIGN KEY (book_id, published_date)" +
+                "        REFERENCES books (id, published_date) ON DELETE CASCADE ON UPDATE CASCADE" +
+                ") PARTITION BY RANGE (published_date)"
             );
+            jdbcTemplate.execute("CREATE TABLE book_tag_entries_default PARTITION OF book_tag_entries DEFAULT");
+            
+            // Tag-first index for tag filters and tag counts
+            jdbcTemplate.execute("CREATE INDEX idx_book_tags_tag ON book_tag_entries (tag, book_id)");
+            
+            // book_tags view for the Book.tags mapping; writes go to book_tag_entries
+            jdbcTemplate.execute("CREATE VIEW book_tags AS SELECT book_id, tag FROM book_tag_entries");
+            jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION write_book_tags() RETURNS trigger LANGUAGE plpgsql AS $$
+                BEGIN
+                    IF TG_OP = 'INSERT' THEN
+                        INSERT INTO book_tag_entries (book_id, published_date, tag)
+                        SELECT b.id, b.published_date, NEW.tag FROM books b WHERE b.id = NEW.book_id;
+                        IF NOT FOUND THEN
+                            RAISE foreign_key_violation USING MESSAGE = 'book ' || NEW.book_id || ' does not exist';
+                        END IF;
+                        RETURN NEW;
+                    END IF;
+                    DELETE FROM book_tag_entries WHERE book_id = OLD.book_id AND tag = OLD.tag;
+                    RETURN OLD;
+                END;
+                $$""");
+            jdbcTemplate.execute("CREATE TRIGGER trg_book_tags_write INSTEAD OF INSERT OR DELETE ON book_tags " +
+                "FOR EACH ROW EXECUTE FUNCTION write_book_tags()");
+            
+            // Archiving: CALL detach_books_year(<year>)
+            jdbcTemplate.execute("""
+                CREATE OR REPLACE PROCEDURE detach_books_year(year INTEGER) LANGUAGE plpgsql AS $$
+                BEGIN
+                    EXECUTE format('DELETE FROM book_isbns k USING %I b WHERE k.book_id = b.id', 'books_y' || year);
+                    EXECUTE format('ALTER TABLE book_tag_entries DETACH PARTITION %I', 'book_tag_entries_y' || year);
+                    EXECUTE format('ALTER TABLE books DETACH PARTITION %I', 'books_y' || year);
+                END;
+                $$""");
+            
+            // Yearly partitions
+            partitionMaintenance.ensurePartitions();
             
             System.out.println("=== Created tables with correct schema ===");
             
@@ -104,12 +181,12 @@ public class DatabaseInitializer {
         
         // Insert books
         jdbcTemplate.execute(
-            "INSERT INTO books (title, isbn, price, published_date, genre, description, rating, author_id, publisher_id) VALUES " +
-            "('Spring Boot Mastery', '978-1234567890', 49.99, '2023-01-15', 'TECHNOLOGY', 'Complete guide to Spring Boot development', 4.5, 3, 1)," +
-            "('The Future Chronicles', '978-1234567891', 24.99, '2023-03-20', 'SCIENCE_FICTION', 'A thrilling journey through space and time', 4.2, 2, 2)," +
-            "('Mystery at Midnight', '978-1234567892', 19.99, '2023-06-10', 'MYSTERY', 'A gripping mystery novel set in Victorian London', 4.0, 4, 2)," +
-            "('GraphQL in Action', '978-1234567893', 54.99, '2023-09-05', 'TECHNOLOGY', 'Learn GraphQL from basics to advanced', 4.7, 3, 1)," +
-            "('Digital Revolution', '978-1234567894', 29.99, '2023-11-12', 'NON_FICTION', 'How technology is changing our world', 4.3, 1, 4)"
+            "INSERT INTO books (title, isbn, price, published_date, genre, description, rating, rating_count, author_id, publisher_id) VALUES " +
+            "('Spring Boot Mastery', '978-1234567890', 49.99, '2023-01-15', 'TECHNOLOGY', 'Complete guide to Spring Boot development', 4.5, 120, 3, 1)," +
+            "('The Future Chronicles', '978-1234567891', 24.99, '2023-03-20', 'SCIENCE_FICTION', 'A thrilling journey through space and time', 4.2, 85, 2, 2)," +
+            "('Mystery at Midnight', '978-1234567892', 19.99, '2023-06-10', 'MYSTERY', 'A gripping mystery novel set in Victorian London', 4.0, 64, 4, 2)," +
+            "('GraphQL in Action', '978-1234567893', 54.99, '2023-09-05', 'TECHNOLOGY', 'Learn GraphQL from basics to advanced', 4.7, 210, 3, 1)," +
+            "('Digital Revolution', '978-1234567894', 29.99, '2023-11-12', 'NON_FICTION', 'How technology is changing our world', 4.3, 42, 1, 4)"
         );
         
         // Insert book tags
@@ -0,0 +1,28 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.execution.RoleScopedExecutionGraphQlService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.GraphQlSource;
+
+import java.util.List;
+
+/**
+ * Role-based field visibility
+ * Replaces Boot's ExecutionGraphQlService with one that picks a precompiled schema view per caller.
+ */
+@Configuration
+@EnableConfigurationProperties(FieldVisibilityProperties.class)
+public class FieldVisibilityConfig {
+
+    @Bean
+    public ExecutionGraphQlService executionGraphQlService(GraphQlSource graphQlSource,
+                                                           BatchLoaderRegistry batchLoaderRegistry,
+                                                           FieldVisibilityProperties properties) {
+        return new RoleScopedExecutionGraphQlService(graphQlSource, List.of(batchLoaderRegistry),
+                properties.getApiKeys());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.graphqldemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * API keys and the roles they carry, for the @visibleTo schema directive
+ * Keyed by the key itself: app.graphql.visibility.api-keys[some-key]=USER,ADMIN.
+ * Callers send it as "Authorization: Bearer some-key".
+ */
+@ConfigurationProperties(prefix = "app.graphql.visibility")
+public class FieldVisibilityProperties {
+    private Map<String, Set<String>> apiKeys = new HashMap<>();
+
+    // Getters and Setters
+    public Map<String, Set<String>> getApiKeys() { return apiKeys; }
+    public void setApiKeys(Map<String, Set<String>> apiKeys) { this.apiKeys = apiKeys; }
+}
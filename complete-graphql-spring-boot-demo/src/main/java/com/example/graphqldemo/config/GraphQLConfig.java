@@ -1,10 +1,26 @@
 package com.example.graphqldemo.config;
 
+import com.example.graphqldemo.datasource.PrimaryPinning;
+import com.example.graphqldemo.execution.RequestClockInstrumentation;
+import com.example.graphqldemo.resolver.EntityFieldFetchers;
 import com.example.graphqldemo.scalar.DateTimeScalar;
+import com.example.graphqldemo.web.GraphQlResponseWriter;
+import com.example.graphqldemo.web.QueryCoalescingInterceptor;
+import com.example.graphqldemo.web.RemoteAddressFilter;
+import com.example.graphqldemo.web.StreamingGraphQlHttpHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import graphql.scalars.ExtendedScalars;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webmvc.GraphQlHttpHandler;
+
+import java.time.Duration;
 
 /**
  * GraphQL Configuration class
@@ -15,10 +31,56 @@ public class GraphQLConfig {
 
     @Bean
     public RuntimeWiringConfigurer runtimeWiringConfigurer() {
-        return wiringBuilder -> wiringBuilder
-                // Register custom DateTime scalar
-                .scalar(DateTimeScalar.INSTANCE)
-                // Register extended BigDecimal scalar for precise decimal handling
-                .scalar(ExtendedScalars.GraphQLBigDecimal);
+        return wiringBuilder -> {
+            wiringBuilder
+                    // Register custom DateTime scalar
+                    .scalar(DateTimeScalar.INSTANCE)
+                    // Register extended BigDecimal scalar for precise decimal handling
+                    .scalar(ExtendedScalars.GraphQLBigDecimal);
+            // Direct getter calls for entity fields instead of reflective property lookup
+            EntityFieldFetchers.register(wiringBuilder);
+        };
+    }
+
+    /**
+     * Per-operation clock snapshot for computed age fields
+     */
+    @Bean
+    public RequestClockInstrumentation requestClockInstrumentation() {
+        return new RequestClockInstrumentation();
+    }
+
+    /**
+     * Replaces Boot's default HTTP handler so responses are written straight to the output stream
+     * and so a JSON array of operations is accepted as a single batch request.
+     * Set app.graphql.streaming-response.enabled=false to fall back to the default handler
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.graphql.streaming-response.enabled", matchIfMissing = true)
+    public GraphQlHttpHandler graphQlHttpHandler(WebGraphQlHandler webGraphQlHandler, ObjectMapper objectMapper,
+                                                 @Value("${app.graphql.batch.max-size:20}") int maxBatchSize) {
+        return new StreamingGraphQlHttpHandler(webGraphQlHandler, new GraphQlResponseWriter(objectMapper),
+                maxBatchSize);
+    }
+
+    /**
+     * Client address for per-client read-your-writes pinning and anonymous rate limits,
+     * independent of which HTTP handler is active
+     */
+    @Bean
+    public RemoteAddressFilter remoteAddressFilter() {
+        return new RemoteAddressFilter();
+    }
+
+    /**
+     * Identical concurrent queries share one execution
+     * Metrics: graphql.coalescing.requests{outcome=executed|coalesced|fallback}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.graphql.coalescing.enabled", matchIfMissing = true)
+    public QueryCoalescingInterceptor queryCoalescingInterceptor(
+            @Value("${app.graphql.coalescing.max-wait:2s}") Duration maxWait,
+            ObjectProvider<PrimaryPinning> primaryPinning, MeterRegistry meterRegistry) {
+        return new QueryCoalescingInterceptor(maxWait, primaryPinning.getIfAvailable(), meterRegistry);
     }
 }
\ No newline at end of file
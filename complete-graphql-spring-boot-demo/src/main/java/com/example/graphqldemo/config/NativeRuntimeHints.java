@@ -0,0 +1,30 @@
+package com.example.graphqldemo.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Native image hints that Spring AOT cannot infer
+ * AOT processing already registers the entities (JPA managed types), the @SchemaMapping controller
+ * methods with their argument and return types (DTOs, payloads, entities), the repository
+ * projections and the graphql/*.graphqls schema resource. DateTimeScalar is wired as a static
+ * instance and needs nothing.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // DeadlineAwareDataSource wraps every pooled connection, and the statements created under a
+        // deadline, in JDK proxies and forwards calls reflectively
+        for (Class<?> type : new Class<?>[] {Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class}) {
+            hints.proxies().registerJdkProxy(type);
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.execution.DeadlineAwareDataSource;
+import com.example.graphqldemo.execution.QueryTimeoutInstrumentation;
+import com.example.graphqldemo.web.QueryCancellationInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Statement timeouts and cancellation for GraphQL operations
+ * Deadlines are enforced by the instrumentation, pushed down to JDBC by wrapping the
+ * DataSource, and cancelled when the HTTP request is aborted.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryTimeoutProperties.class)
+public class QueryTimeoutConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService queryDeadlineWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "query-deadline-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most operations finish well inside their budget; drop their timers right away
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    @Bean
+    public QueryTimeoutInstrumentation queryTimeoutInstrumentation(QueryTimeoutProperties properties,
+                                                                   ScheduledExecutorService queryDeadlineWatchdog) {
+        return new QueryTimeoutInstrumentation(properties, queryDeadlineWatchdog);
+    }
+
+    @Bean
+    public QueryCancellationInterceptor queryCancellationInterceptor() {
+        return new QueryCancellationInterceptor();
+    }
+
+    /**
+     * Wrap the application DataSource so statements inherit the operation deadline
+     */
+    @Bean
+    public static BeanPostProcessor deadlineAwareDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineAwareDataSource)) {
+                    return new DeadlineAwareDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.graphqldemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Execution time budgets for GraphQL operations
+ * app.graphql.timeouts.default-timeout applies to any root field without its own entry
+ * in app.graphql.timeouts.fields (keyed by root field name, e.g. searchBooks).
+ */
+@ConfigurationProperties(prefix = "app.graphql.timeouts")
+public class QueryTimeoutProperties {
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Map<String, Duration> fields = new HashMap<>();
+
+    public Duration budgetFor(String fieldName) {
+        return fields.getOrDefault(fieldName, defaultTimeout);
+    }
+
+    // Getters and Setters
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Map<String, Duration> getFields() { return fields; }
+    public void setFields(Map<String, Duration> fields) { this.fields = fields; }
+}
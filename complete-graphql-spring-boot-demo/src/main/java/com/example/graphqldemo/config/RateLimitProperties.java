@@ -0,0 +1,59 @@
+package com.example.graphqldemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-client token buckets for /graphql
+ * Clients are the API keys of app.graphql.visibility.api-keys, sent as "Authorization: Bearer <key>".
+ * Each key gets rate operations per second with bursts up to burst, unless app.graphql.rate-limit.keys
+ * has its own entry. Requests without a known key get an anonymous bucket per remote address, kept
+ * for at most max-anonymous-clients addresses at a time.
+ */
+@ConfigurationProperties(prefix = "app.graphql.rate-limit")
+public class RateLimitProperties {
+    private Bucket defaults = new Bucket(20, 40);
+    private Bucket anonymous = new Bucket(50, 100);
+    private Map<String, Bucket> keys = new HashMap<>();
+    private int maxAnonymousClients = 10_000;
+
+    public Bucket bucketFor(String apiKey) {
+        return keys.getOrDefault(apiKey, defaults);
+    }
+
+    public static class Bucket {
+        private double rate;
+        private int burst;
+
+        public Bucket() {
+            this(20, 40);
+        }
+
+        public Bucket(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        // Getters and Setters
+        public double getRate() { return rate; }
+        public void setRate(double rate) { this.rate = rate; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+
+    // Getters and Setters
+    public Bucket getDefaults() { return defaults; }
+    public void setDefaults(Bucket defaults) { this.defaults = defaults; }
+
+    public Bucket getAnonymous() { return anonymous; }
+    public void setAnonymous(Bucket anonymous) { this.anonymous = anonymous; }
+
+    public Map<String, Bucket> getKeys() { return keys; }
+    public void setKeys(Map<String, Bucket> keys) { this.keys = keys; }
+
+    public int getMaxAnonymousClients() { return maxAnonymousClients; }
+    public void setMaxAnonymousClients(int maxAnonymousClients) { this.maxAnonymousClients = maxAnonymousClients; }
+}
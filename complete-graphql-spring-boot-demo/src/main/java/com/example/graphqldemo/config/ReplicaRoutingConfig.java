@@ -0,0 +1,83 @@
+package com.example.graphqldemo.config;
+
+import com.example.graphqldemo.datasource.PrimaryPinning;
+import com.example.graphqldemo.datasource.ReadWriteRoutingDataSource;
+import com.example.graphqldemo.datasource.ReplicaPool;
+import com.example.graphqldemo.execution.ReadWriteRoutingInstrumentation;
+import com.example.graphqldemo.web.ClientKeyInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Read-replica routing
+ * Enabled with app.datasource.routing.enabled=true. Query operations and read-only transactions
+ * are served by the replica pool; mutations, read-write transactions and callers inside their
+ * read-your-writes window use the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(ReplicaRoutingProperties properties, DataSourceProperties primaryProperties) {
+        List<DataSource> replicas = properties.getReplicas().stream()
+                .map(replica -> (DataSource) DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(primaryProperties.determineDriverClassName())
+                        .url(replica.getUrl())
+                        .username(replica.getUsername() != null ? replica.getUsername() : primaryProperties.getUsername())
+                        .password(replica.getPassword() != null ? replica.getPassword() : primaryProperties.getPassword())
+                        .build())
+                .toList();
+        ReplicaPool pool = new ReplicaPool(replicas, 2);
+        pool.startHealthChecks(properties.getHealthCheckInterval());
+        return pool;
+    }
+
+    /**
+     * Replaces Boot's auto-configured DataSource
+     * The lazy proxy defers fetching a physical connection until the first statement, by which
+     * time the transaction's read-only flag and the operation's route are both known.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties, ReplicaPool replicaPool) {
+        DataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaPool));
+    }
+
+    /**
+     * Hand connections back after each transaction (or statement, outside one) instead of holding
+     * one for the whole request, so successive operations in a request can be routed differently
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(
+                "hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public PrimaryPinning primaryPinning(ReplicaRoutingProperties properties) {
+        return new PrimaryPinning(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReadWriteRoutingInstrumentation readWriteRoutingInstrumentation(PrimaryPinning primaryPinning) {
+        return new ReadWriteRoutingInstrumentation(primaryPinning);
+    }
+
+    @Bean
+    public ClientKeyInterceptor clientKeyInterceptor() {
+        return new ClientKeyInterceptor();
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.graphqldemo.controller;
 
 import com.example.graphqldemo.dto.AuthorInput;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
 import com.example.graphqldemo.entity.Author;
 import com.example.graphqldemo.entity.Publisher;
+import com.example.graphqldemo.event.CatalogChangedEvent;
 import com.example.graphqldemo.repository.AuthorRepository;
 import com.example.graphqldemo.repository.PublisherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -27,6 +31,9 @@ public class AuthorController {
     @Autowired
     private PublisherRepository publisherRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @QueryMapping
     public List<Author> authors(@Argument Integer limit) {
         if (limit == null) limit = 10;
@@ -67,6 +74,7 @@ public class AuthorController {
             author.setBiography(input.getBiography());
 
             Author savedAuthor = authorRepository.save(author);
+            eventPublisher.publishEvent(CatalogChangedEvent.authors(List.of(savedAuthor.getId())));
             return new AuthorPayload(savedAuthor, Collections.emptyList(), true);
 
         } catch (Exception e) {
@@ -95,6 +103,7 @@ public class AuthorController {
             author.setBiography(input.getBiography());
 
             Author updatedAuthor = authorRepository.save(author);
+            eventPublisher.publishEvent(CatalogChangedEvent.authors(List.of(updatedAuthor.getId())));
             return new AuthorPayload(updatedAuthor, Collections.emptyList(), true);
 
         } catch (Exception e) {
@@ -104,6 +113,26 @@ public class AuthorController {
         }
     }
 
+    @MutationMapping
+    public UpsertPayload upsertAuthors(@Argument List<AuthorInput> input) {
+        try {
+            List<UpsertResult> results = authorRepository.upsertAuthors(input);
+            List<Long> changed = results.stream()
+                    .filter(result -> result.getStatus() != UpsertStatus.UNCHANGED)
+                    .map(UpsertResult::getId)
+                    .distinct()
+                    .toList();
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(CatalogChangedEvent.authors(changed));
+            }
+            return new UpsertPayload(results, Collections.emptyList(), true);
+        } catch (Exception e) {
+            return new UpsertPayload(Collections.emptyList(),
+                List.of(new ErrorDetails("general", e.getMessage(), "UPSERT_ERROR")),
+                false);
+        }
+    }
+
     // Payload and Error classes
     public static class AuthorPayload {
         private final Author author;
@@ -121,6 +150,22 @@ public class AuthorController {
         public boolean isSuccess() { return success; }
     }
 
+    public static class UpsertPayload {
+        private final List<UpsertResult> results;
+        private final List<ErrorDetails> errors;
+        private final boolean success;
+
+        public UpsertPayload(List<UpsertResult> results, List<ErrorDetails> errors, boolean success) {
+            this.results = results;
+            this.errors = errors;
+            this.success = success;
+        }
+
+        public List<UpsertResult> getResults() { return results; }
+        public List<ErrorDetails> getErrors() { return errors; }
+        public boolean isSuccess() { return success; }
+    }
+
     public static class ErrorDetails {
         private final String field;
         private final String message;
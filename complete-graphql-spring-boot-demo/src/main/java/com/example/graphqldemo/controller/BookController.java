@@ -1,20 +1,35 @@
 package com.example.graphqldemo.controller;
 
+import com.example.graphqldemo.dto.AutocompleteHit;
+import com.example.graphqldemo.dto.BookFacets;
 import com.example.graphqldemo.dto.BookFilter;
 import com.example.graphqldemo.dto.BookInput;
+import com.example.graphqldemo.dto.FacetCount;
+import com.example.graphqldemo.dto.BookRanking;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
 import com.example.graphqldemo.entity.Author;
 import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.entity.Genre;
 import com.example.graphqldemo.entity.Publisher;
+import com.example.graphqldemo.event.CatalogChangedEvent;
 import com.example.graphqldemo.repository.AuthorRepository;
 import com.example.graphqldemo.repository.BookRepository;
 import com.example.graphqldemo.repository.PublisherRepository;
+import com.example.graphqldemo.service.AutocompleteIndex;
+import com.example.graphqldemo.service.BookFacetService;
+import com.example.graphqldemo.service.BookFilterSnapshot;
+import com.example.graphqldemo.service.LeaderboardService;
+import com.example.graphqldemo.service.RatingAggregator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -35,6 +50,27 @@ public class BookController {
     @Autowired
     private PublisherRepository publisherRepository;
 
+    @Autowired
+    private RatingAggregator ratingAggregator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private BookFacetService bookFacetService;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private BookFilterSnapshot bookFilterSnapshot;
+
     // Query Operations with Variables and Filtering
     @QueryMapping
     public List<Book> books(@Argument Integer limit, 
@@ -47,12 +83,24 @@ public class BookController {
         Pageable pageable = PageRequest.of(offset / limit, limit);
 
         if (filter != null) {
+            // Evaluated in memory when the snapshot is on, so only the page itself is read from the database
+            List<Long> ids = bookFilterSnapshot.findIds(filter, (int) pageable.getOffset(), limit);
+            if (ids != null) {
+                return findAllInOrder(ids);
+            }
+            Set<String> tagsAny = distinctTags(filter.getTagsAny());
+            Set<String> tagsAll = distinctTags(filter.getTagsAll());
             return bookRepository.findBooksWithFilter(
-                    filter.getTitle(),
+                    BookRepository.escapeLike(filter.getTitle()),
+                    BookRepository.escapeLike(filter.getAuthor()),
                     filter.getGenre(),
                     filter.getMinPrice(),
                     filter.getMaxPrice(),
-                    filter.getPublishedAfter(),
+                    filter.getPublishedAfter() != null ? filter.getPublishedAfter() : BookRepository.PUBLISHED_ANY_TIME,
+                    tagsAny,
+                    tagsAny.size(),
+                    tagsAll,
+                    tagsAll.size(),
                     pageable
             ).getContent();
         } else {
@@ -70,6 +118,25 @@ public class BookController {
         return bookRepository.findByAuthorId(Long.parseLong(authorId));
     }
 
+    @QueryMapping
+    public List<Book> topBooks(@Argument Genre genre, @Argument BookRanking by, @Argument Integer first) {
+        if (by == null) by = BookRanking.RATING;
+        if (first == null) first = 10;
+
+        return findAllInOrder(leaderboardService.topIds(genre, by, first));
+    }
+
+    @QueryMapping
+    public BookFacets bookFacets(@Argument BookFilter filter) {
+        return bookFacetService.facets(filter);
+    }
+
+    @QueryMapping
+    public List<FacetCount> tags(@Argument Integer first) {
+        if (first == null) first = 50;
+        return bookFacetService.tagCounts(first);
+    }
+
     // Deprecated query for versioning demonstration
     @QueryMapping
     @Deprecated
@@ -94,6 +161,13 @@ public class BookController {
         return results;
     }
 
+    // Typeahead for the search box; no database access
+    @QueryMapping
+    public List<AutocompleteHit> autocomplete(@Argument String prefix, @Argument Integer first) {
+        if (first == null) first = 10;
+        return autocompleteIndex.complete(prefix, first);
+    }
+
     // Mutation Operations
     @MutationMapping
     public BookPayload createBook(@Argument BookInput input) {
@@ -124,7 +198,12 @@ public class BookController {
             book.setAuthor(author.get());
             book.setPublisher(publisher.get());
 
-            Book savedBook = bookRepository.save(book);
+            // Under the upsert's ISBN lock, so a racing upsert of this ISBN updates the new book instead of failing
+            Book savedBook = transactionTemplate.execute(status -> {
+                bookRepository.lockIsbns(List.of(book.getIsbn()));
+                return bookRepository.save(book);
+            });
+            eventPublisher.publishEvent(CatalogChangedEvent.books(List.of(savedBook.getId())));
             return new BookPayload(savedBook, Collections.emptyList(), true);
 
         } catch (Exception e) {
@@ -146,6 +225,7 @@ public class BookController {
             }
 
             Book book = existingBook.get();
+            boolean newIsbn = !Objects.equals(book.getIsbn(), input.getIsbn());
             book.setTitle(input.getTitle());
             book.setIsbn(input.getIsbn());
             book.setPrice(input.getPrice());
@@ -168,7 +248,13 @@ public class BookController {
                 }
             }
 
-            Book updatedBook = bookRepository.save(book);
+            Book updatedBook = transactionTemplate.execute(status -> {
+                if (newIsbn) {
+                    bookRepository.lockIsbns(List.of(input.getIsbn()));
+                }
+                return bookRepository.save(book);
+            });
+            eventPublisher.publishEvent(CatalogChangedEvent.books(List.of(updatedBook.getId())));
             return new BookPayload(updatedBook, Collections.emptyList(), true);
 
         } catch (Exception e) {
@@ -181,13 +267,14 @@ public class BookController {
     @MutationMapping
     public DeletePayload deleteBook(@Argument String id) {
         try {
+            // Single DELETE ... RETURNING instead of existsById + find + remove
             Long bookId = Long.parseLong(id);
-            if (!bookRepository.existsById(bookId)) {
+            if (bookRepository.deleteBooks(List.of(bookId), null).isEmpty()) {
                 return new DeletePayload(null, false, 
                     List.of(new ErrorDetails("id", "Book not found", "BOOK_NOT_FOUND")));
             }
 
-            bookRepository.deleteById(bookId);
+            eventPublisher.publishEvent(CatalogChangedEvent.books(List.of(bookId)));
             return new DeletePayload(id, true, Collections.emptyList());
 
         } catch (Exception e) {
@@ -196,6 +283,42 @@ public class BookController {
         }
     }
 
+    @MutationMapping
+    public DeleteBooksPayload deleteBooks(@Argument List<String> ids, @Argument BookFilter filter) {
+        try {
+            List<Long> requested = ids.stream().map(Long::parseLong).toList();
+            Set<Long> deleted = new HashSet<>(bookRepository.deleteBooks(requested, filter));
+            eventPublisher.publishEvent(CatalogChangedEvent.books(deleted));
+
+            List<String> missingIds = requested.stream()
+                    .filter(bookId -> !deleted.contains(bookId))
+                    .distinct()
+                    .map(String::valueOf)
+                    .toList();
+            List<String> deletedIds = deleted.stream().map(String::valueOf).toList();
+            return new DeleteBooksPayload(deletedIds, missingIds, true, Collections.emptyList());
+
+        } catch (Exception e) {
+            return new DeleteBooksPayload(Collections.emptyList(), Collections.emptyList(), false,
+                List.of(new ErrorDetails("general", e.getMessage(), "DELETE_ERROR")));
+        }
+    }
+
+    @MutationMapping
+    public RatingPayload rateBook(@Argument String bookId, @Argument Double score) {
+        if (score == null || score < 1.0 || score > 5.0) {
+            return new RatingPayload(null, false,
+                List.of(new ErrorDetails("score", "Score must be between 1 and 5", "INVALID_SCORE")));
+        }
+        return switch (ratingAggregator.rate(Long.parseLong(bookId), score)) {
+            case ACCEPTED -> new RatingPayload(bookId, true, Collections.emptyList());
+            case BOOK_NOT_FOUND -> new RatingPayload(null, false,
+                List.of(new ErrorDetails("bookId", "Book not found", "BOOK_NOT_FOUND")));
+            case BACKLOG -> new RatingPayload(null, false,
+                List.of(new ErrorDetails("general", "Too many pending ratings, try again shortly", "RATING_BACKLOG")));
+        };
+    }
+
     @MutationMapping
     public List<BookPayload> createBooks(@Argument List<BookInput> input) {
         return input.stream()
@@ -207,6 +330,45 @@ public class BookController {
         return createBook(input);
     }
 
+    @MutationMapping
+    public UpsertPayload upsertBooks(@Argument List<BookInput> input) {
+        try {
+            List<UpsertResult> results = bookRepository.upsertBooks(input);
+            publishChanged(results);
+            return new UpsertPayload(results, Collections.emptyList(), true);
+        } catch (Exception e) {
+            return new UpsertPayload(Collections.emptyList(),
+                List.of(new ErrorDetails("general", e.getMessage(), "UPSERT_ERROR")),
+                false);
+        }
+    }
+
+    // Books deleted since the ids were picked are skipped
+    private List<Book> findAllInOrder(List<Long> ids) {
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, book -> book));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // tagsAll matches on the number of distinct requested tags a book carries
+    private static Set<String> distinctTags(List<String> tags) {
+        return tags != null ? new LinkedHashSet<>(tags) : Collections.emptySet();
+    }
+
+    private void publishChanged(List<UpsertResult> results) {
+        List<Long> changed = results.stream()
+                .filter(result -> result.getStatus() != UpsertStatus.UNCHANGED)
+                .map(UpsertResult::getId)
+                .distinct()
+                .toList();
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.books(changed));
+        }
+    }
+
     // Payload classes for mutations
     public static class BookPayload {
         private final Book book;
@@ -224,6 +386,38 @@ public class BookController {
         public boolean isSuccess() { return success; }
     }
 
+    public static class RatingPayload {
+        private final String bookId;
+        private final boolean success;
+        private final List<ErrorDetails> errors;
+
+        public RatingPayload(String bookId, boolean success, List<ErrorDetails> errors) {
+            this.bookId = bookId;
+            this.success = success;
+            this.errors = errors;
+        }
+
+        public String getBookId() { return bookId; }
+        public boolean isSuccess() { return success; }
+        public List<ErrorDetails> getErrors() { return errors; }
+    }
+
+    public static class UpsertPayload {
+        private final List<UpsertResult> results;
+        private final List<ErrorDetails> errors;
+        private final boolean success;
+
+        public UpsertPayload(List<UpsertResult> results, List<ErrorDetails> errors, boolean success) {
+            this.results = results;
+            this.errors = errors;
+            this.success = success;
+        }
+
+        public List<UpsertResult> getResults() { return results; }
+        public List<ErrorDetails> getErrors() { return errors; }
+        public boolean isSuccess() { return success; }
+    }
+
     public static class DeletePayload {
         private final String id;
         private final boolean success;
@@ -240,6 +434,26 @@ public class BookController {
         public List<ErrorDetails> getErrors() { return errors; }
     }
 
+    public static class DeleteBooksPayload {
+        private final List<String> deletedIds;
+        private final List<String> missingIds;
+        private final boolean success;
+        private final List<ErrorDetails> errors;
+
+        public DeleteBooksPayload(List<String> deletedIds, List<String> missingIds, boolean success,
+                                  List<ErrorDetails> errors) {
+            this.deletedIds = deletedIds;
+            this.missingIds = missingIds;
+            this.success = success;
+            this.errors = errors;
+        }
+
+        public List<String> getDeletedIds() { return deletedIds; }
+        public List<String> getMissingIds() { return missingIds; }
+        public boolean isSuccess() { return success; }
+        public List<ErrorDetails> getErrors() { return errors; }
+    }
+
     public static class ErrorDetails {
         private final String field;
         private final String message;
@@ -0,0 +1,33 @@
+package com.example.graphqldemo.datasource;
+
+/**
+ * Where the current thread's database work should go
+ * Set for the duration of a GraphQL operation; unset means "decide from the transaction".
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA;
+
+    private static final ThreadLocal<DataSourceRoute> CURRENT = new ThreadLocal<>();
+
+    public static DataSourceRoute current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a route to the calling thread, returning whatever was bound before
+     */
+    public static DataSourceRoute bind(DataSourceRoute route) {
+        DataSourceRoute previous = CURRENT.get();
+        CURRENT.set(route);
+        return previous;
+    }
+
+    public static void restore(DataSourceRoute previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
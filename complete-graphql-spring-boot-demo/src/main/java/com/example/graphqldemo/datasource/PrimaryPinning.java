@@ -0,0 +1,46 @@
+package com.example.graphqldemo.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes tracking
+ * After a client runs a mutation, its queries are pinned to the primary for a short window so
+ * they cannot observe a replica that has not yet replayed the write. Clients are keyed by
+ * {@link com.example.graphqldemo.web.ClientKeyInterceptor}: by Authorization header, or by remote
+ * address for anonymous callers.
+ */
+public class PrimaryPinning {
+
+    // Expired pins are otherwise only dropped when their client reads again
+    private static final int PRUNE_THRESHOLD = 4096;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+
+    public PrimaryPinning(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void pin(String clientKey) {
+        long now = System.nanoTime();
+        if (pinnedUntil.size() >= PRUNE_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+        pinnedUntil.put(clientKey, now + windowNanos);
+    }
+
+    public boolean isPinned(String clientKey) {
+        Long until = pinnedUntil.get(clientKey);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(clientKey, until);
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.graphqldemo.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Routes connections between the primary and a pool of read replicas
+ * Reads go to a replica when the thread is bound to {@link DataSourceRoute#REPLICA} or is inside
+ * a read-only transaction; everything else, including any read-write transaction, goes to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy so the transaction's read-only flag
+ * is known by the time a connection is actually requested.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+
+    private final ReplicaPool replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    DataSource determineTarget() {
+        if (!useReplica()) {
+            return primary;
+        }
+        DataSource replica = replicas.next();
+        // No healthy replica: the primary can always serve reads
+        return replica != null ? replica : primary;
+    }
+
+    private static boolean useReplica() {
+        DataSourceRoute route = DataSourceRoute.current();
+        if (route == DataSourceRoute.PRIMARY) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return route == DataSourceRoute.REPLICA;
+    }
+}
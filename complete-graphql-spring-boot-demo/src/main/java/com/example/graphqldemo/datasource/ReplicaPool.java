@@ -0,0 +1,123 @@
+package com.example.graphqldemo.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robin pool of read replicas with periodic health checks
+ * Replicas failing the check are skipped until they pass again. With no replicas configured every
+ * read falls back to the primary.
+ */
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final List<DataSource> replicas;
+
+    // Replaced wholesale by each health check so readers always see a consistent snapshot
+    private volatile boolean[] healthy;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final int validationTimeoutSeconds;
+
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaPool(List<DataSource> replicas, int validationTimeoutSeconds) {
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new boolean[replicas.size()];
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        Arrays.fill(healthy, true);
+    }
+
+    /**
+     * Start checking replica health at a fixed interval
+     */
+    public void startHealthChecks(Duration interval) {
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Next healthy replica in round-robin order, or null if none is healthy
+     */
+    public DataSource next() {
+        boolean[] snapshot = healthy;
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (snapshot[index]) {
+                return replicas.get(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validate a connection from each replica and update its health flag
+     */
+    public void checkHealth() {
+        boolean[] previous = healthy;
+        boolean[] current = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean ok;
+            try (Connection connection = replicas.get(i).getConnection()) {
+                ok = connection.isValid(validationTimeoutSeconds);
+            } catch (Exception ex) {
+                ok = false;
+            }
+            if (ok != previous[i]) {
+                if (ok) {
+                    log.info("Replica {} is now healthy", i);
+                } else {
+                    log.warn("Replica {} is now unhealthy", i);
+                }
+            }
+            current[i] = ok;
+        }
+        healthy = current;
+    }
+
+    public int healthyCount() {
+        int count = 0;
+        for (boolean flag : healthy) {
+            if (flag) count++;
+        }
+        return count;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // Shutting down anyway
+                }
+            }
+        }
+    }
+}
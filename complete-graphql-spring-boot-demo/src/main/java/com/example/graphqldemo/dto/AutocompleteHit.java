@@ -0,0 +1,21 @@
+package com.example.graphqldemo.dto;
+
+/**
+ * Lightweight typeahead suggestion: what kind of entity, its id and the label that matched
+ */
+public class AutocompleteHit {
+    private final AutocompleteKind kind;
+    private final Long id;
+    private final String label;
+
+    public AutocompleteHit(AutocompleteKind kind, Long id, String label) {
+        this.kind = kind;
+        this.id = id;
+        this.label = label;
+    }
+
+    // Getters
+    public AutocompleteKind getKind() { return kind; }
+    public Long getId() { return id; }
+    public String getLabel() { return label; }
+}
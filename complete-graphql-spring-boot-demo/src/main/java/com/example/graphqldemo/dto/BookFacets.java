@@ -0,0 +1,26 @@
+package com.example.graphqldemo.dto;
+
+import java.util.List;
+
+/**
+ * Counts of the books matching a filter, broken down by genre, tag and price range
+ */
+public class BookFacets {
+    private final long total;
+    private final List<FacetCount> genres;
+    private final List<FacetCount> tags;
+    private final List<PriceBucket> priceRanges;
+
+    public BookFacets(long total, List<FacetCount> genres, List<FacetCount> tags, List<PriceBucket> priceRanges) {
+        this.total = total;
+        this.genres = genres;
+        this.tags = tags;
+        this.priceRanges = priceRanges;
+    }
+
+    // Getters
+    public long getTotal() { return total; }
+    public List<FacetCount> getGenres() { return genres; }
+    public List<FacetCount> getTags() { return tags; }
+    public List<PriceBucket> getPriceRanges() { return priceRanges; }
+}
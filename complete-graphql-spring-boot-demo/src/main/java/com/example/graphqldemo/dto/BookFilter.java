@@ -3,6 +3,7 @@ package com.example.graphqldemo.dto;
 import com.example.graphqldemo.entity.Genre;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class BookFilter {
     private String title;
@@ -11,6 +12,8 @@ public class BookFilter {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private LocalDateTime publishedAfter;
+    private List<String> tagsAny;
+    private List<String> tagsAll;
 
     // Constructors
     public BookFilter() {}
@@ -33,4 +36,10 @@ public class BookFilter {
 
     public LocalDateTime getPublishedAfter() { return publishedAfter; }
     public void setPublishedAfter(LocalDateTime publishedAfter) { this.publishedAfter = publishedAfter; }
+
+    public List<String> getTagsAny() { return tagsAny; }
+    public void setTagsAny(List<String> tagsAny) { this.tagsAny = tagsAny; }
+
+    public List<String> getTagsAll() { return tagsAll; }
+    public void setTagsAll(List<String> tagsAll) { this.tagsAll = tagsAll; }
 }
\ No newline at end of file
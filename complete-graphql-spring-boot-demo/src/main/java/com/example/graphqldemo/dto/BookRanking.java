@@ -0,0 +1,6 @@
+package com.example.graphqldemo.dto;
+
+public enum BookRanking {
+    RATING,
+    NEWEST
+}
@@ -0,0 +1,18 @@
+package com.example.graphqldemo.dto;
+
+/**
+ * Number of matching books sharing one facet value (a genre or a tag)
+ */
+public class FacetCount {
+    private final String value;
+    private final long count;
+
+    public FacetCount(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    // Getters
+    public String getValue() { return value; }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,23 @@
+package com.example.graphqldemo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One price histogram bucket: min inclusive, max exclusive, null meaning unbounded
+ */
+public class PriceBucket {
+    private final BigDecimal min;
+    private final BigDecimal max;
+    private final long count;
+
+    public PriceBucket(BigDecimal min, BigDecimal max, long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    // Getters
+    public BigDecimal getMin() { return min; }
+    public BigDecimal getMax() { return max; }
+    public long getCount() { return count; }
+}
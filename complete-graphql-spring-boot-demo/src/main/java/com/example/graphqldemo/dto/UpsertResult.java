@@ -0,0 +1,21 @@
+package com.example.graphqldemo.dto;
+
+/**
+ * Outcome of upserting one item, identified by its natural key (ISBN or email)
+ */
+public class UpsertResult {
+    private final Long id;
+    private final String key;
+    private final UpsertStatus status;
+
+    public UpsertResult(Long id, String key, UpsertStatus status) {
+        this.id = id;
+        this.key = key;
+        this.status = status;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getKey() { return key; }
+    public UpsertStatus getStatus() { return status; }
+}
@@ -0,0 +1,7 @@
+package com.example.graphqldemo.dto;
+
+public enum UpsertStatus {
+    CREATED,
+    UPDATED,
+    UNCHANGED
+}
@@ -24,6 +24,7 @@ public class Book {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    // Partition key of books and book_tag_entries; changing it moves the book and its tags to another partition
     @Column(name = "published_date", nullable = false)
     private LocalDateTime publishedDate;
 
@@ -43,6 +44,10 @@ public class Book {
     @Column
     private Double rating;
 
+    // Number of ratings averaged into rating; maintained by the rating write-behind flush
+    @Column(name = "rating_count", nullable = false)
+    private Integer ratingCount = 0;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
@@ -104,6 +109,9 @@ public class Book {
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
 
+    public Integer getRatingCount() { return ratingCount; }
+    public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
+
     public Author getAuthor() { return author; }
     public void setAuthor(Author author) { this.author = author; }
 
@@ -0,0 +1,64 @@
+package com.example.graphqldemo.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after a mutation has committed changes to catalog rows
+ * Listeners that keep derived in-memory structures (leaderboards, indexes, caches) refresh the
+ * affected ids from the database; ids that no longer exist were deleted. Changes committed by
+ * other instances arrive through {@link CatalogInvalidationBus} as remote events.
+ *
+ * Rating flushes only move books' rating and rating_count, every second under load, so they are
+ * published as BOOK_RATING rather than BOOK: only the rating leaderboards read those columns, and
+ * the similarity index, autocomplete index, facet caches and filter snapshot ignore them.
+ */
+public class CatalogChangedEvent {
+
+    public enum Kind {
+        BOOK,
+        BOOK_RATING,
+        AUTHOR,
+        PUBLISHER
+    }
+
+    private final Kind kind;
+    private final List<Long> ids;
+    private final boolean remote;
+
+    public CatalogChangedEvent(Kind kind, Collection<Long> ids) {
+        this(kind, ids, false);
+    }
+
+    private CatalogChangedEvent(Kind kind, Collection<Long> ids, boolean remote) {
+        this.kind = kind;
+        this.ids = List.copyOf(ids);
+        this.remote = remote;
+    }
+
+    public static CatalogChangedEvent books(Collection<Long> ids) {
+        return new CatalogChangedEvent(Kind.BOOK, ids);
+    }
+
+    /**
+     * Only the rating and rating_count of these books changed
+     */
+    public static CatalogChangedEvent ratings(Collection<Long> ids) {
+        return new CatalogChangedEvent(Kind.BOOK_RATING, ids);
+    }
+
+    public static CatalogChangedEvent authors(Collection<Long> ids) {
+        return new CatalogChangedEvent(Kind.AUTHOR, ids);
+    }
+
+    /**
+     * A change committed by another instance, so not to be broadcast again
+     */
+    public static CatalogChangedEvent remote(Kind kind, Collection<Long> ids) {
+        return new CatalogChangedEvent(kind, ids, true);
+    }
+
+    public Kind getKind() { return kind; }
+    public List<Long> getIds() { return ids; }
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,17 @@
+package com.example.graphqldemo.event;
+
+/**
+ * Published when catalog changes made elsewhere may have been missed
+ * Sent by {@link CatalogInvalidationBus} after its listener reconnects or detects a gap in another
+ * instance's notifications. Listeners drop or rebuild everything they derived from catalog rows.
+ */
+public class CatalogFlushEvent {
+
+    private final String reason;
+
+    public CatalogFlushEvent(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() { return reason; }
+}
@@ -0,0 +1,195 @@
+package com.example.graphqldemo.event;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Relays catalog changes between application instances over PostgreSQL LISTEN/NOTIFY
+ * Local {@link CatalogChangedEvent}s are sent with pg_notify as "node:sequence:KIND:id,id,..."; a
+ * NOTIFY issued inside a transaction is only delivered if it commits. Every instance listens on a
+ * dedicated connection outside the pool and republishes other instances' changes as remote events,
+ * so the listeners that keep leaderboards, facet caches and the autocomplete index evict the same
+ * entries on every node.
+ *
+ * Notifications are fire-and-forget: anything sent while the listener was disconnected is lost. So
+ * a reconnect, or a jump in another node's sequence numbers (it failed to send, or we failed to
+ * receive), publishes a {@link CatalogFlushEvent} instead, and listeners rebuild from the database.
+ */
+public class CatalogInvalidationBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogInvalidationBus.class);
+
+    // Keeps a payload well under PostgreSQL's 8000 byte limit for NOTIFY
+    private static final int MAX_IDS_PER_NOTIFICATION = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final Duration keepaliveInterval;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    // Guards sequence, so notifications leave in sequence order and reordering is never a gap
+    private final Object sendLock = new Object();
+    private long sequence;
+
+    // Last sequence number seen from each other node; only touched by the listener thread
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public CatalogInvalidationBus(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                  String url, String username, String password, String channel,
+                                  Duration pollTimeout, Duration reconnectDelay, Duration keepaliveInterval) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Channel must be a lower case SQL identifier: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.keepaliveInterval = keepaliveInterval;
+    }
+
+    /**
+     * Start listening; called before the application is ready, so caches built on
+     * ApplicationReadyEvent see no changes that the listener missed
+     */
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "catalog-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(pollTimeout.toMillis() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isRemote() || event.getIds().isEmpty()) {
+            return;
+        }
+        List<Long> ids = event.getIds();
+        synchronized (sendLock) {
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_NOTIFICATION) {
+                send(event.getKind(), ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_NOTIFICATION)));
+            }
+        }
+    }
+
+    private void send(CatalogChangedEvent.Kind kind, List<Long> ids) {
+        // Taken before sending, so a failed send shows up as a gap on the other nodes
+        long seq = ++sequence;
+        String payload = nodeId + ':' + seq + ':' + kind + ':'
+                + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        } catch (DataAccessException e) {
+            log.warn("Catalog change notification failed, other nodes will flush: {}", e.getMessage());
+        }
+    }
+
+    private void listen() {
+        // Nothing can have been missed before the first connection: caches are not built yet
+        boolean missed = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Catalog invalidation listening on channel {}", channel);
+                if (missed) {
+                    eventPublisher.publishEvent(new CatalogFlushEvent("listener reconnected"));
+                }
+                missed = true;
+
+                long nextKeepalive = System.nanoTime() + keepaliveInterval.toNanos();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                    // A dead peer without a TCP reset would otherwise leave us waiting forever
+                    if (System.nanoTime() - nextKeepalive >= 0) {
+                        statement.execute("SELECT 1");
+                        nextKeepalive = System.nanoTime() + keepaliveInterval.toNanos();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Includes failures of the listeners we publish to; their state is suspect either way
+                if (!running) {
+                    return;
+                }
+                missed = true;
+                log.warn("Catalog invalidation listener stopped, reconnecting in {}s: {}", reconnectDelay.toSeconds(), e.toString());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed catalog notification: {}", payload);
+            return;
+        }
+        String origin = parts[0];
+        if (origin.equals(nodeId)) {
+            return;
+        }
+        long seq = Long.parseLong(parts[1]);
+        Long last = lastSequenceByNode.put(origin, seq);
+        if (last != null && seq != last + 1) {
+            eventPublisher.publishEvent(new CatalogFlushEvent("missed " + (seq - last - 1)
+                    + " notification(s) from node " + origin));
+            return;
+        }
+        List<Long> ids = parts[3].isEmpty() ? List.of()
+                : Arrays.stream(parts[3].split(",")).map(Long::valueOf).toList();
+        eventPublisher.publishEvent(CatalogChangedEvent.remote(CatalogChangedEvent.Kind.valueOf(parts[2]), ids));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.graphqldemo.execution;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit with a bounded, short wait queue
+ * A caller that finds no free permit waits at most maxWait, and only if fewer than maxWaiting
+ * callers are already waiting; otherwise it is turned away at once instead of piling up threads
+ * in front of the connection pool.
+ */
+public class Bulkhead {
+
+    private final OperationClass operationClass;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final Duration maxWait;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public Bulkhead(OperationClass operationClass, int maxConcurrent, int maxWaiting, Duration maxWait) {
+        if (maxConcurrent < 1 || maxWaiting < 0) {
+            throw new IllegalArgumentException("Bulkhead " + operationClass
+                    + " needs max-concurrent >= 1 and max-waiting >= 0");
+        }
+        this.operationClass = operationClass;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWait = maxWait;
+        // Fair, so waiters are served in arrival order and none waits out its maxWait behind newcomers
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * @return whether a permit was acquired; if so, {@link #release()} must follow
+     */
+    public boolean tryAcquire() {
+        try {
+            // The timed form honours fairness, unlike tryAcquire(), so newcomers do not overtake waiters
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public OperationClass getOperationClass() {
+        return operationClass;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.graphqldemo.execution;
+
+import com.example.graphqldemo.config.BulkheadProperties;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.core.Ordered;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Separate concurrency limits for search, list, point lookup and mutation operations
+ * An operation holds a permit of every class its root fields belong to for its whole execution,
+ * so a flood of searchBooks or large books pages can only ever take its own share of the
+ * connection pool and bookById traffic keeps flowing. When a bulkhead and its short wait queue
+ * are full the operation is rejected before any SQL runs.
+ *
+ * Ordered ahead of every other instrumentation: a rejection throws out of beginExecuteOperation,
+ * and instrumentations that already began (binding a datasource route or a query deadline to the
+ * thread) would never see their completion callback run.
+ */
+public class BulkheadInstrumentation extends SimplePerformantInstrumentation implements Ordered {
+
+    private final BulkheadProperties properties;
+
+    private final Map<OperationClass, Bulkhead> bulkheads = new EnumMap<>(OperationClass.class);
+    private final Map<OperationClass, Counter> rejectedCounters = new EnumMap<>(OperationClass.class);
+
+    public BulkheadInstrumentation(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (OperationClass operationClass : OperationClass.values()) {
+            BulkheadProperties.Limit limit = properties.limitFor(operationClass);
+            Bulkhead bulkhead = new Bulkhead(operationClass, limit.getMaxConcurrent(), limit.getMaxWaiting(),
+                    limit.getMaxWait());
+            bulkheads.put(operationClass, bulkhead);
+            String tag = operationClass.name().toLowerCase(Locale.ROOT);
+            meterRegistry.gauge("graphql.bulkhead.active", Tags.of("class", tag),
+                    bulkhead, Bulkhead::getActive);
+            meterRegistry.gauge("graphql.bulkhead.waiting", Tags.of("class", tag),
+                    bulkhead, Bulkhead::getWaiting);
+            rejectedCounters.put(operationClass, meterRegistry.counter("graphql.bulkhead.rejected", "class", tag));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        Set<OperationClass> classes = classify(parameters.getExecutionContext());
+        if (classes.isEmpty()) {
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        List<Bulkhead> acquired = new ArrayList<>(classes.size());
+        for (OperationClass operationClass : classes) {
+            Bulkhead bulkhead = bulkheads.get(operationClass);
+            if (!bulkhead.tryAcquire()) {
+                acquired.forEach(Bulkhead::release);
+                rejectedCounters.get(operationClass).increment();
+                throw new OperationRejectedException(OperationRejectedException.Reason.OVERLOADED,
+                        "Too many concurrent " + operationClass.name().toLowerCase(Locale.ROOT) + " operations, retry later",
+                        properties.limitFor(operationClass).getRetryAfter(), operationClass);
+            }
+            acquired.add(bulkhead);
+        }
+        return SimpleInstrumentationContext.whenCompleted((result, ex) -> acquired.forEach(Bulkhead::release));
+    }
+
+    /**
+     * Classes of the operation's root fields, in acquisition (enum) order
+     */
+    private Set<OperationClass> classify(ExecutionContext executionContext) {
+        boolean mutation = executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.MUTATION;
+        Set<OperationClass> classes = EnumSet.noneOf(OperationClass.class);
+        for (String fieldName : RootFields.of(executionContext)) {
+            OperationClass operationClass = properties.getFields().get(fieldName);
+            if (operationClass == null && mutation) {
+                operationClass = OperationClass.MUTATION;
+            }
+            if (operationClass != null) {
+                classes.add(operationClass);
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.graphqldemo.execution;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DataSource that pushes the current {@link QueryDeadline} down to JDBC
+ * Every statement created while a deadline is bound gets the remaining budget as its query
+ * timeout (so PostgreSQL cancels it server-side) and is registered for explicit cancellation
+ * until it is closed, directly or by closing its connection.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+    public DeadlineAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection target) {
+        // Statements still registered with their deadline, so closing the connection can release them
+        Map<Statement, QueryDeadline> open = new ConcurrentHashMap<>();
+        return (Connection) Proxy.newProxyInstance(
+                DeadlineAwareDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement) {
+                        QueryDeadline deadline = applyDeadline(statement);
+                        if (deadline != null) {
+                            open.put(statement, deadline);
+                            return track(statement, method.getReturnType(), deadline, open);
+                        }
+                    } else if (method.getName().equals("close")) {
+                        open.forEach((statement, deadline) -> deadline.unregister(statement));
+                        open.clear();
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Proxy of the statement's JDBC interface that unregisters it from its deadline on close()
+     */
+    private static Statement track(Statement target, Class<?> type, QueryDeadline deadline,
+                                   Map<Statement, QueryDeadline> open) {
+        return (Statement) Proxy.newProxyInstance(
+                DeadlineAwareDataSource.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        deadline.unregister(target);
+                        open.remove(target);
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private static QueryDeadline applyDeadline(Statement statement) throws SQLException {
+        QueryDeadline deadline = QueryDeadline.current();
+        if (deadline == null) {
+            return null;
+        }
+        if (deadline.isExpired()) {
+            statement.close();
+            throw new SQLTimeoutException("GraphQL operation deadline exceeded", "57014");
+        }
+        statement.setQueryTimeout(deadline.remainingSeconds());
+        deadline.register(statement);
+        return deadline;
+    }
+}
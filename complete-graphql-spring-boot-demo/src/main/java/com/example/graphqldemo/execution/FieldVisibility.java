@@ -0,0 +1,133 @@
+package com.example.graphqldemo.execution;
+
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLSchemaElement;
+import graphql.schema.GraphQLTypeVisitorStub;
+import graphql.schema.SchemaTransformer;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static graphql.util.TreeTransformerUtil.deleteNode;
+
+/**
+ * Role-filtered views of a schema, compiled once
+ * Fields marked @visibleTo(roles: [...]) exist only for callers holding at least one of those
+ * roles. Every combination of the roles named in the schema gets its own GraphQLSchema with the
+ * other marked fields removed, so execution never checks roles: a caller's role set maps to a
+ * bitmask, and the mask indexes the precompiled view. For a caller without the role a marked
+ * field is simply not part of the schema, in validation and introspection alike.
+ */
+public final class FieldVisibility {
+
+    public static final String DIRECTIVE = "visibleTo";
+
+    // 2^n views are compiled; keeps startup bounded if the directive is overused
+    private static final int MAX_ROLES = 10;
+
+    private final List<String> roles;
+
+    private final GraphQLSchema[] views;
+
+    private FieldVisibility(List<String> roles, GraphQLSchema[] views) {
+        this.roles = roles;
+        this.views = views;
+    }
+
+    public static FieldVisibility compile(GraphQLSchema schema) {
+        // Roles in order of first use; bit i of a mask stands for roles.get(i)
+        Map<String, Integer> bits = new LinkedHashMap<>();
+        Map<FieldCoordinates, Integer> requiredMasks = new HashMap<>();
+        for (GraphQLNamedType type : schema.getAllTypesAsList()) {
+            if (!(type instanceof GraphQLFieldsContainer container) || type.getName().startsWith("__")) {
+                continue;
+            }
+            for (GraphQLFieldDefinition field : container.getFieldDefinitions()) {
+                GraphQLAppliedDirective directive = field.getAppliedDirective(DIRECTIVE);
+                if (directive == null) {
+                    continue;
+                }
+                int required = 0;
+                for (String role : directive.getArgument("roles").<List<String>>getValue()) {
+                    Integer bit = bits.computeIfAbsent(role, r -> bits.size());
+                    if (bit >= MAX_ROLES) {
+                        throw new IllegalStateException("@" + DIRECTIVE + " names more than " + MAX_ROLES + " roles");
+                    }
+                    required |= 1 << bit;
+                }
+                requiredMasks.put(FieldCoordinates.coordinates(container.getName(), field.getName()), required);
+            }
+        }
+
+        GraphQLSchema[] views = new GraphQLSchema[1 << bits.size()];
+        // Role combinations that hide the same fields share one schema
+        Map<Set<FieldCoordinates>, GraphQLSchema> byHiddenFields = new HashMap<>();
+        for (int mask = 0; mask < views.length; mask++) {
+            Set<FieldCoordinates> hidden = new HashSet<>();
+            for (Map.Entry<FieldCoordinates, Integer> entry : requiredMasks.entrySet()) {
+                if ((entry.getValue() & mask) == 0) {
+                    hidden.add(entry.getKey());
+                }
+            }
+            views[mask] = byHiddenFields.computeIfAbsent(hidden,
+                    fields -> fields.isEmpty() ? schema : without(schema, fields));
+        }
+        return new FieldVisibility(new ArrayList<>(bits.keySet()), views);
+    }
+
+    /**
+     * Bitmask of the caller's roles that the schema cares about; unknown roles are ignored
+     */
+    public int mask(Collection<String> callerRoles) {
+        int mask = 0;
+        for (String role : callerRoles) {
+            int bit = roles.indexOf(role);
+            if (bit >= 0) {
+                mask |= 1 << bit;
+            }
+        }
+        return mask;
+    }
+
+    public GraphQLSchema view(int mask) {
+        return views[mask];
+    }
+
+    /**
+     * Number of views, indexed 0 (no roles) to viewCount() - 1 (every role)
+     */
+    public int viewCount() {
+        return views.length;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    private static GraphQLSchema without(GraphQLSchema schema, Set<FieldCoordinates> hidden) {
+        return SchemaTransformer.transformSchema(schema, new GraphQLTypeVisitorStub() {
+            @Override
+            public TraversalControl visitGraphQLFieldDefinition(GraphQLFieldDefinition node,
+                                                                TraverserContext<GraphQLSchemaElement> context) {
+                if (context.getParentNode() instanceof GraphQLFieldsContainer container
+                        && hidden.contains(FieldCoordinates.coordinates(container.getName(), node.getName()))) {
+                    return deleteNode(context);
+                }
+                return TraversalControl.CONTINUE;
+            }
+        });
+    }
+}
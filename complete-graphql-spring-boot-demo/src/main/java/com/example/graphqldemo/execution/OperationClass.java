@@ -0,0 +1,12 @@
+package com.example.graphqldemo.execution;
+
+/**
+ * Cost classes of root fields, each with its own bulkhead
+ * Ordered so that operations spanning several classes always acquire them in the same order.
+ */
+public enum OperationClass {
+    SEARCH,
+    LIST,
+    POINT,
+    MUTATION
+}
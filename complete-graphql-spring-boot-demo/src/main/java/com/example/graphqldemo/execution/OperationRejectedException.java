@@ -0,0 +1,54 @@
+package com.example.graphqldemo.execution;
+
+import graphql.execution.AbortExecutionException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An operation turned away before execution because a limit was reached
+ * Surfaces as an ExecutionAborted GraphQL error with a code of RATE_LIMITED or OVERLOADED and a retryAfterMs,
+ * which the rate limit interceptor also copies into a Retry-After response header.
+ */
+public class OperationRejectedException extends AbortExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String RETRY_AFTER_EXTENSION = "retryAfterMs";
+
+    public enum Reason {
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+    private final OperationClass operationClass;
+
+    public OperationRejectedException(Reason reason, String message, Duration retryAfter,
+                                      OperationClass operationClass) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+        this.operationClass = operationClass;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("code", reason.name());
+        extensions.put(RETRY_AFTER_EXTENSION, retryAfter.toMillis());
+        if (operationClass != null) {
+            extensions.put("operationClass", operationClass.name());
+        }
+        return extensions;
+    }
+
+    // Getters
+    public Reason getReason() { return reason; }
+
+    public Duration getRetryAfter() { return retryAfter; }
+
+    public OperationClass getOperationClass() { return operationClass; }
+}
@@ -0,0 +1,114 @@
+package com.example.graphqldemo.execution;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Execution deadline for one GraphQL operation
+ * Bound to the executing thread while the operation runs, so JDBC statements created underneath
+ * it pick up the remaining budget as their query timeout and can be cancelled as a group when
+ * the deadline passes or the HTTP request goes away.
+ */
+public class QueryDeadline {
+
+    /**
+     * GraphQLContext key under which the HTTP layer hands the deadline to the execution layer
+     */
+    public static final String CONTEXT_KEY = QueryDeadline.class.getName();
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+
+    private volatile long deadlineNanos = Long.MAX_VALUE;
+
+    private volatile boolean cancelled;
+
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind this deadline to the calling thread, returning whatever was bound before
+     */
+    public QueryDeadline bind() {
+        QueryDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void restore(QueryDeadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void start(Duration budget) {
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    /**
+     * Tighten the deadline to at most the given budget from now; returns the previous deadline
+     */
+    public long narrow(Duration budget) {
+        long previous = deadlineNanos;
+        deadlineNanos = Math.min(previous, System.nanoTime() + budget.toNanos());
+        return previous;
+    }
+
+    public void reset(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return cancelled || remainingNanos() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Remaining budget in whole seconds for Statement.setQueryTimeout (0 means no limit there)
+     */
+    public int remainingSeconds() {
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return 0;
+        }
+        long nanos = remainingNanos();
+        return (int) Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public void register(Statement statement) {
+        statements.add(statement);
+    }
+
+    public void unregister(Statement statement) {
+        statements.remove(statement);
+    }
+
+    /**
+     * Cancel every statement still running under this deadline
+     * Called when the budget runs out or the client aborts; safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // Statement already finished or closed
+            }
+        }
+        statements.clear();
+    }
+}
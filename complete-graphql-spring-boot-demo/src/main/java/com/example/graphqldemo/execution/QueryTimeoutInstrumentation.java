@@ -0,0 +1,97 @@
+package com.example.graphqldemo.execution;
+
+import com.example.graphqldemo.config.QueryTimeoutProperties;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces per-operation execution deadlines in the resolver layer
+ * The operation budget is the largest budget configured for any of its root fields; each root
+ * field fetch is additionally narrowed to its own budget. Fetchers refuse to start once the
+ * deadline has passed, and a watchdog cancels in-flight JDBC statements when it fires.
+ */
+public class QueryTimeoutInstrumentation extends SimplePerformantInstrumentation {
+
+    private final QueryTimeoutProperties properties;
+
+    private final ScheduledExecutorService watchdog;
+
+    public QueryTimeoutInstrumentation(QueryTimeoutProperties properties, ScheduledExecutorService watchdog) {
+        this.properties = properties;
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        QueryDeadline deadline = executionContext.getGraphQLContext().get(QueryDeadline.CONTEXT_KEY);
+        if (deadline == null) {
+            deadline = new QueryDeadline();
+        }
+
+        Duration budget = operationBudget(executionContext);
+        deadline.start(budget);
+        QueryDeadline previous = deadline.bind();
+        ScheduledFuture<?> timer = watchdog.schedule(deadline::cancel, budget.toMillis(), TimeUnit.MILLISECONDS);
+
+        return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+            timer.cancel(false);
+            QueryDeadline.restore(previous);
+        });
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+        boolean rootField = parameters.getExecutionStepInfo().getPath().getLevel() == 1;
+        String fieldName = parameters.getField().getName();
+
+        return environment -> {
+            QueryDeadline deadline = QueryDeadline.current();
+            if (deadline == null) {
+                return dataFetcher.get(environment);
+            }
+            if (deadline.isExpired()) {
+                throw new QueryTimeoutException("Execution deadline exceeded before resolving '" + fieldName + "'");
+            }
+            if (!rootField) {
+                return dataFetcher.get(environment);
+            }
+            long previous = deadline.narrow(properties.budgetFor(fieldName));
+            try {
+                return dataFetcher.get(environment);
+            } finally {
+                deadline.reset(previous);
+            }
+        };
+    }
+
+    private Duration operationBudget(ExecutionContext executionContext) {
+        Duration budget = null;
+        for (String fieldName : RootFields.of(executionContext)) {
+            Duration fieldBudget = properties.budgetFor(fieldName);
+            if (budget == null || fieldBudget.compareTo(budget) > 0) {
+                budget = fieldBudget;
+            }
+        }
+        return budget != null ? budget : properties.getDefaultTimeout();
+    }
+}
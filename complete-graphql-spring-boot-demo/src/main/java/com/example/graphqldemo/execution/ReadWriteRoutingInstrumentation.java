@@ -0,0 +1,49 @@
+package com.example.graphqldemo.execution;
+
+import com.example.graphqldemo.datasource.DataSourceRoute;
+import com.example.graphqldemo.datasource.PrimaryPinning;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+
+/**
+ * Binds each GraphQL operation to a datasource route
+ * Queries read from replicas unless the caller recently wrote; mutations always use the primary
+ * and pin the caller to it for the read-your-writes window.
+ */
+public class ReadWriteRoutingInstrumentation extends SimplePerformantInstrumentation {
+
+    /**
+     * GraphQLContext key holding the caller identity used for read-your-writes pinning
+     */
+    public static final String CLIENT_KEY = ReadWriteRoutingInstrumentation.class.getName() + ".client";
+
+    private final PrimaryPinning pinning;
+
+    public ReadWriteRoutingInstrumentation(PrimaryPinning pinning) {
+        this.pinning = pinning;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        String client = executionContext.getGraphQLContext().getOrDefault(CLIENT_KEY, "");
+        boolean query = executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.QUERY;
+
+        DataSourceRoute route = query && !pinning.isPinned(client) ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+        DataSourceRoute previous = DataSourceRoute.bind(route);
+
+        return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+            DataSourceRoute.restore(previous);
+            if (!query) {
+                pinning.pin(client);
+            }
+        });
+    }
+}
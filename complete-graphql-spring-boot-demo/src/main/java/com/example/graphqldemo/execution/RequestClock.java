@@ -0,0 +1,57 @@
+package com.example.graphqldemo.execution;
+
+import graphql.GraphQLContext;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time snapshot shared by every field of one GraphQL operation
+ * Taken by {@link RequestClockInstrumentation} when the operation starts and kept in its
+ * GraphQLContext, so computed ages are consistent within a response and the clock is read once
+ * instead of once per object.
+ */
+public final class RequestClock {
+
+    /**
+     * GraphQLContext key holding the operation's snapshot
+     */
+    public static final String CONTEXT_KEY = RequestClock.class.getName();
+
+    private final LocalDateTime now;
+
+    public RequestClock(LocalDateTime now) {
+        this.now = now;
+    }
+
+    /**
+     * The operation's snapshot, or a fresh one when executed without the instrumentation
+     */
+    public static RequestClock of(GraphQLContext context) {
+        RequestClock clock = context.get(CONTEXT_KEY);
+        return clock != null ? clock : new RequestClock(LocalDateTime.now());
+    }
+
+    public LocalDateTime now() {
+        return now;
+    }
+
+    /**
+     * Whole years from the given time to the snapshot, as ChronoUnit.YEARS.between computes them
+     * Works on the date-time fields directly, so no intermediate objects are created.
+     */
+    public int yearsSince(LocalDateTime from) {
+        return from.isAfter(now) ? -wholeYears(now, from) : wholeYears(from, now);
+    }
+
+    private static int wholeYears(LocalDateTime start, LocalDateTime end) {
+        int years = end.getYear() - start.getYear();
+        int cmp = Integer.compare(end.getMonthValue(), start.getMonthValue());
+        if (cmp == 0) {
+            cmp = Integer.compare(end.getDayOfMonth(), start.getDayOfMonth());
+        }
+        if (cmp == 0) {
+            cmp = end.toLocalTime().compareTo(start.toLocalTime());
+        }
+        return cmp < 0 ? years - 1 : years;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.graphqldemo.execution;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+
+import java.time.LocalDateTime;
+
+/**
+ * Takes the {@link RequestClock} snapshot when an operation starts executing
+ */
+public class RequestClockInstrumentation extends SimplePerformantInstrumentation {
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        GraphQLContext context = parameters.getExecutionContext().getGraphQLContext();
+        if (!context.hasKey(RequestClock.CONTEXT_KEY)) {
+            context.put(RequestClock.CONTEXT_KEY, new RequestClock(LocalDateTime.now()));
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.graphqldemo.execution;
+
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.graphql.ExecutionGraphQlRequest;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.DataLoaderRegistrar;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes each request against the schema view for the caller's roles
+ * Callers present an API key as "Authorization: Bearer <key>"; the roles configured for that key
+ * select one of the views compiled by {@link FieldVisibility}. Requests without a known key, and
+ * requests that do not come over HTTP, get the view with no roles. Per request this is one map
+ * lookup and an array index; everything else is prepared at startup.
+ */
+public class RoleScopedExecutionGraphQlService implements ExecutionGraphQlService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleScopedExecutionGraphQlService.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ExecutionGraphQlService[] services;
+
+    // Keyed by the whole Authorization header value, so lookups need no parsing
+    private final Map<String, Integer> masksByAuthorization = new HashMap<>();
+
+    public RoleScopedExecutionGraphQlService(GraphQlSource graphQlSource, List<DataLoaderRegistrar> dataLoaderRegistrars,
+                                             Map<String, Set<String>> rolesByApiKey) {
+        FieldVisibility visibility = FieldVisibility.compile(graphQlSource.schema());
+        services = new ExecutionGraphQlService[visibility.viewCount()];
+        Map<GraphQLSchema, ExecutionGraphQlService> byView = new IdentityHashMap<>();
+        for (int mask = 0; mask < services.length; mask++) {
+            services[mask] = byView.computeIfAbsent(visibility.view(mask), view -> {
+                GraphQlSource source = view == graphQlSource.schema() ? graphQlSource
+                        : new ViewSource(graphQlSource.graphQl().transform(builder -> builder.schema(view)), view);
+                DefaultExecutionGraphQlService service = new DefaultExecutionGraphQlService(source);
+                dataLoaderRegistrars.forEach(service::addDataLoaderRegistrar);
+                return service;
+            });
+        }
+        rolesByApiKey.forEach((apiKey, roles) ->
+                masksByAuthorization.put(BEARER_PREFIX + apiKey, visibility.mask(roles)));
+        log.info("Field visibility: roles {}, {} schema views", visibility.getRoles(), byView.size());
+    }
+
+    @Override
+    public Mono<ExecutionGraphQlResponse> execute(ExecutionGraphQlRequest request) {
+        return services[maskOf(request)].execute(request);
+    }
+
+    private int maskOf(ExecutionGraphQlRequest request) {
+        if (request instanceof WebGraphQlRequest webRequest) {
+            String authorization = webRequest.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authorization != null) {
+                return masksByAuthorization.getOrDefault(authorization, 0);
+            }
+        }
+        return 0;
+    }
+
+    private record ViewSource(GraphQL graphQl, GraphQLSchema schema) implements GraphQlSource {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.graphqldemo.execution;
+
+import graphql.execution.ExecutionContext;
+import graphql.execution.FieldCollector;
+import graphql.execution.FieldCollectorParameters;
+import graphql.execution.MergedField;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Names of the root fields an operation will execute
+ * Collected the way graphql-java collects them for execution: through inline fragments and
+ * fragment spreads, with @skip and @include applied and aliases resolved to field names. Per-field
+ * policies keyed on these names cannot be sidestepped by wrapping a field in a fragment.
+ */
+final class RootFields {
+
+    private static final FieldCollector FIELD_COLLECTOR = new FieldCollector();
+
+    private RootFields() {}
+
+    static Set<String> of(ExecutionContext executionContext) {
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+        GraphQLObjectType rootType = switch (executionContext.getOperationDefinition().getOperation()) {
+            case QUERY -> schema.getQueryType();
+            case MUTATION -> schema.getMutationType();
+            case SUBSCRIPTION -> schema.getSubscriptionType();
+        };
+        FieldCollectorParameters parameters = FieldCollectorParameters.newParameters()
+                .schema(schema)
+                .objectType(rootType)
+                .fragments(executionContext.getFragmentsByName())
+                .variables(executionContext.getCoercedVariables().toMap())
+                .build();
+
+        Set<String> names = new LinkedHashSet<>();
+        for (MergedField field : FIELD_COLLECTOR.collectFields(parameters,
+                executionContext.getOperationDefinition().getSelectionSet()).getSubFieldsList()) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+}
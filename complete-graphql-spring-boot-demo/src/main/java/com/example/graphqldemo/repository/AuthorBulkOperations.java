@@ -0,0 +1,18 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.AuthorInput;
+import com.example.graphqldemo.dto.UpsertResult;
+
+import java.util.List;
+
+/**
+ * Set-based write operations on authors, implemented with plain SQL
+ */
+public interface AuthorBulkOperations {
+
+    /**
+     * Insert or update authors keyed by email, one statement per chunk of inputs
+     * Results are returned in input order; a repeated email reports the outcome of its last occurrence.
+     */
+    List<UpsertResult> upsertAuthors(List<AuthorInput> inputs);
+}
@@ -0,0 +1,114 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.AuthorInput;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-SQL implementation of {@link AuthorBulkOperations}
+ * Picked up by Spring Data as the fragment implementation behind {@link AuthorRepository}.
+ */
+public class AuthorBulkOperationsImpl implements AuthorBulkOperations {
+
+    private static final String UPSERT_ROW = "(?::varchar, ?::varchar, ?::varchar, ?::timestamp, ?::text)";
+
+    // Same shape as the book upsert: untouched rows are UNCHANGED and resolved from the snapshot
+    private static final String UPSERT_SQL =
+            "WITH input (first_name, last_name, email, birth_date, biography) AS (" +
+            "    VALUES %s" +
+            "), upserted AS (" +
+            "    INSERT INTO authors (first_name, last_name, email, birth_date, biography)" +
+            "    SELECT first_name, last_name, email, birth_date, biography FROM input" +
+            "    ON CONFLICT (email) DO UPDATE SET" +
+            "        first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name," +
+            "        birth_date = EXCLUDED.birth_date, biography = EXCLUDED.biography" +
+            "    WHERE (authors.first_name, authors.last_name, authors.birth_date, authors.biography)" +
+            "        IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name, EXCLUDED.birth_date, EXCLUDED.biography)" +
+            "    RETURNING id, email, (xmax = 0) AS inserted" +
+            ") " +
+            "SELECT i.email, COALESCE(u.id, a.id) AS id," +
+            "       CASE WHEN u.id IS NULL THEN 'UNCHANGED' WHEN u.inserted THEN 'CREATED' ELSE 'UPDATED' END AS status " +
+            "FROM input i LEFT JOIN upserted u ON u.email = i.email LEFT JOIN authors a ON a.email = i.email";
+
+    // An UNCHANGED author committed by a concurrent transaction after the upsert's snapshot was taken
+    // is not in its LEFT JOIN; a new statement sees it
+    private static final String FIND_IDS_SQL = "SELECT id, email FROM authors WHERE email = ANY(?::text[])";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public AuthorBulkOperationsImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.graphql.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public List<UpsertResult> upsertAuthors(List<AuthorInput> inputs) {
+        if (inputs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // ON CONFLICT cannot touch the same row twice in one statement, so the last occurrence wins
+        Map<String, AuthorInput> byEmail = new LinkedHashMap<>();
+        for (AuthorInput input : inputs) {
+            byEmail.put(input.getEmail(), input);
+        }
+        List<AuthorInput> unique = new ArrayList<>(byEmail.values());
+
+        Map<String, UpsertResult> results = new HashMap<>();
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<AuthorInput> chunk = unique.subList(from, Math.min(from + batchSize, unique.size()));
+            upsertChunk(chunk, results);
+        }
+
+        List<UpsertResult> ordered = new ArrayList<>(inputs.size());
+        for (AuthorInput input : inputs) {
+            ordered.add(results.get(input.getEmail()));
+        }
+        return ordered;
+    }
+
+    private void upsertChunk(List<AuthorInput> chunk, Map<String, UpsertResult> results) {
+        String sql = String.format(UPSERT_SQL, String.join(", ", Collections.nCopies(chunk.size(), UPSERT_ROW)));
+        List<Object> args = new ArrayList<>(chunk.size() * 5);
+        for (AuthorInput input : chunk) {
+            args.add(input.getFirstName());
+            args.add(input.getLastName());
+            args.add(input.getEmail());
+            args.add(input.getBirthDate());
+            args.add(input.getBiography());
+        }
+        List<String> unresolved = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            String email = rs.getString("email");
+            long id = rs.getLong("id");
+            if (rs.wasNull()) {
+                unresolved.add(email);
+            } else {
+                results.put(email, new UpsertResult(id, email, UpsertStatus.valueOf(rs.getString("status"))));
+            }
+        }, args.toArray());
+
+        if (!unresolved.isEmpty()) {
+            String[] emails = unresolved.toArray(new String[0]);
+            jdbcTemplate.query(FIND_IDS_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", emails)),
+                    rs -> {
+                        String email = rs.getString("email");
+                        results.put(email, new UpsertResult(rs.getLong("id"), email, UpsertStatus.UNCHANGED));
+                    });
+        }
+    }
+}
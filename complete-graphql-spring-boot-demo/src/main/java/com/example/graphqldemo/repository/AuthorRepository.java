@@ -6,11 +6,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorBulkOperations {
 
     Optional<Author> findByEmail(String email);
 
@@ -21,6 +22,13 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
            "LOWER(CONCAT(a.firstName, ' ', a.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Author> findByFullNameContaining(@Param("name") String name);
 
+    // Full names (as Author.getFullName builds them) for the autocomplete index
+    @Query("SELECT a.id AS id, CONCAT(a.firstName, ' ', a.lastName) AS label FROM Author a")
+    List<LabelRow> findAllLabels();
+
+    @Query("SELECT a.id AS id, CONCAT(a.firstName, ' ', a.lastName) AS label FROM Author a WHERE a.id IN :ids")
+    List<LabelRow> findLabels(@Param("ids") Collection<Long> ids);
+
     // Search authors
     @Query("SELECT a FROM Author a WHERE " +
            "LOWER(a.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
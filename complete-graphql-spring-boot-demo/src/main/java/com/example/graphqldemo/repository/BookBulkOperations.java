@@ -0,0 +1,49 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.dto.BookInput;
+import com.example.graphqldemo.dto.UpsertResult;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based write operations on books, implemented with plain SQL
+ */
+public interface BookBulkOperations {
+
+    /**
+     * Insert or update books keyed by ISBN, one statement per chunk of inputs
+     * Results are returned in input order; a repeated ISBN reports the outcome of its last occurrence.
+     */
+    List<UpsertResult> upsertBooks(List<BookInput> inputs);
+
+    /**
+     * Take the per-ISBN locks upsertBooks takes, held until the current transaction ends
+     * Every other writer of a new ISBN takes them before inserting it, so a concurrent upsert of
+     * the same ISBN waits for that writer to commit and then updates the book instead of failing
+     * on the book_isbns registry.
+     */
+    void lockIsbns(Collection<String> isbns);
+
+    /**
+     * Delete the given books with set-based DELETE statements, without loading them
+     * When a filter is given, only ids that also match it are deleted. Tags go with the
+     * book through the book_tags ON DELETE CASCADE.
+     *
+     * @return ids that were actually deleted
+     */
+    List<Long> deleteBooks(List<Long> ids, BookFilter filter);
+
+    /**
+     * Add aggregated ratings to books.rating_sum / books.rating_count and derive books.rating, in one statement
+     * The update is additive, so several application instances can flush independently.
+     *
+     * @param bookIds     books that received ratings
+     * @param scoreSums   sum of the new scores per book
+     * @param counts      number of new scores per book
+     * @return number of books updated (ids that no longer exist are skipped)
+     */
+    int applyRatings(Long[] bookIds, BigDecimal[] scoreSums, Integer[] counts);
+}
@@ -0,0 +1,181 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.dto.BookInput;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-SQL implementation of {@link BookBulkOperations}
+ * Picked up by Spring Data as the fragment implementation behind {@link BookRepository}.
+ */
+public class BookBulkOperationsImpl implements BookBulkOperations {
+
+    private static final String UPSERT_ROW = "(?::varchar, ?::varchar, ?::numeric, ?::timestamp, ?::varchar, ?::text, ?::bigint, ?::bigint)";
+
+    // books is partitioned, so there is no unique index on isbn for ON CONFLICT to use; existing
+    // books are found through the book_isbns registry instead. Rows whose values are already current
+    // are not touched (and not returned by the UPDATE), which is what tells UNCHANGED apart from UPDATED.
+    private static final String UPSERT_SQL =
+            "WITH input (title, isbn, price, published_date, genre, description, author_id, publisher_id) AS (" +
+            "    VALUES %s" +
+            "), matched AS (" +
+            "    SELECT i.*, k.book_id FROM input i LEFT JOIN book_isbns k ON k.isbn = i.isbn" +
+            "), updated AS (" +
+            "    UPDATE books b SET" +
+            "        title = m.title, price = m.price, published_date = m.published_date," +
+            "        genre = m.genre, description = m.description," +
+            "        author_id = m.author_id, publisher_id = m.publisher_id" +
+            "    FROM matched m" +
+            "    WHERE b.id = m.book_id" +
+            "      AND (b.title, b.price, b.published_date, b.genre, b.description, b.author_id, b.publisher_id)" +
+            "          IS DISTINCT FROM (m.title, m.price, m.published_date, m.genre, m.description," +
+            "          m.author_id, m.publisher_id)" +
+            "    RETURNING b.id" +
+            "), inserted AS (" +
+            "    INSERT INTO books (title, isbn, price, published_date, genre, description, author_id, publisher_id)" +
+            "    SELECT title, isbn, price, published_date, genre, description, author_id, publisher_id" +
+            "    FROM matched WHERE book_id IS NULL" +
+            "    RETURNING id, isbn" +
+            ") " +
+            "SELECT m.isbn, COALESCE(n.id, m.book_id) AS id," +
+            "       CASE WHEN n.id IS NOT NULL THEN 'CREATED' WHEN u.id IS NOT NULL THEN 'UPDATED' ELSE 'UNCHANGED' END AS status " +
+            "FROM matched m LEFT JOIN inserted n ON n.isbn = m.isbn LEFT JOIN updated u ON u.id = m.book_id";
+
+    // Serializes concurrent writers of the same ISBNs until commit, which ON CONFLICT used to do;
+    // locks are taken in hash order so two upserts cannot deadlock on each other. A statement of its
+    // own, so the upsert that follows takes its snapshot after the competing writer has committed.
+    private static final String LOCK_ISBNS_SQL =
+            "SELECT pg_advisory_xact_lock(hashtextextended(isbn, 0)) " +
+            "FROM unnest(?::text[]) AS t(isbn) ORDER BY hashtextextended(isbn, 0)";
+
+    private static final String DELETE_SQL = "DELETE FROM books b WHERE b.id = ANY(?::bigint[])";
+
+    // Adds to the exact sum and derives the rounded average from it, so a flush that moves a popular
+    // book's average by less than the rounding step still counts. rating_sum is NULL for rows whose
+    // rating was set without it (seed data), whose first flush starts it from rating x rating_count.
+    private static final String APPLY_RATINGS_SQL =
+            "UPDATE books b SET" +
+            "    rating_sum = COALESCE(b.rating_sum, COALESCE(b.rating, 0) * b.rating_count) + d.score_sum," +
+            "    rating = ROUND((COALESCE(b.rating_sum, COALESCE(b.rating, 0) * b.rating_count) + d.score_sum)" +
+            "        / (b.rating_count + d.cnt), 2)," +
+            "    rating_count = b.rating_count + d.cnt " +
+            "FROM unnest(?::bigint[], ?::numeric[], ?::int[]) AS d(id, score_sum, cnt) " +
+            "WHERE b.id = d.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public BookBulkOperationsImpl(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.graphql.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public List<UpsertResult> upsertBooks(List<BookInput> inputs) {
+        if (inputs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // One statement cannot update the same row twice, so the last occurrence wins
+        Map<String, BookInput> byIsbn = new LinkedHashMap<>();
+        for (BookInput input : inputs) {
+            byIsbn.put(input.getIsbn(), input);
+        }
+        List<BookInput> unique = new ArrayList<>(byIsbn.values());
+
+        lockIsbns(byIsbn.keySet());
+
+        Map<String, UpsertResult> results = new HashMap<>();
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<BookInput> chunk = unique.subList(from, Math.min(from + batchSize, unique.size()));
+            upsertChunk(chunk, results);
+        }
+
+        List<UpsertResult> ordered = new ArrayList<>(inputs.size());
+        for (BookInput input : inputs) {
+            ordered.add(results.get(input.getIsbn()));
+        }
+        return ordered;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockIsbns(Collection<String> isbns) {
+        String[] array = isbns.toArray(new String[0]);
+        jdbcTemplate.query(LOCK_ISBNS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", array)),
+                rs -> { });
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deleteBooks(List<Long> ids, BookFilter filter) {
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Long> deleted = new ArrayList<>(unique.size());
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<Long> chunk = unique.subList(from, Math.min(from + batchSize, unique.size()));
+
+            StringBuilder sql = new StringBuilder(DELETE_SQL);
+            List<Object> args = new ArrayList<>();
+            BookFilterSql.appendPredicates(filter, "b", sql, args);
+            sql.append(" RETURNING b.id");
+
+            Long[] idArray = chunk.toArray(new Long[0]);
+            deleted.addAll(jdbcTemplate.query(sql.toString(), ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", idArray));
+                for (int i = 0; i < args.size(); i++) {
+                    StatementCreatorUtils.setParameterValue(ps, i + 2, SqlTypeValue.TYPE_UNKNOWN, args.get(i));
+                }
+            }, (rs, rowNum) -> rs.getLong(1)));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int applyRatings(Long[] bookIds, BigDecimal[] scoreSums, Integer[] counts) {
+        return jdbcTemplate.update(APPLY_RATINGS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", bookIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("numeric", scoreSums));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", counts));
+        });
+    }
+
+    private void upsertChunk(List<BookInput> chunk, Map<String, UpsertResult> results) {
+        String sql = String.format(UPSERT_SQL, String.join(", ", Collections.nCopies(chunk.size(), UPSERT_ROW)));
+        List<Object> args = new ArrayList<>(chunk.size() * 8);
+        for (BookInput input : chunk) {
+            args.add(input.getTitle());
+            args.add(input.getIsbn());
+            args.add(input.getPrice());
+            args.add(input.getPublishedDate());
+            args.add(input.getGenre() != null ? input.getGenre().name() : null);
+            args.add(input.getDescription());
+            args.add(input.getAuthorId());
+            args.add(input.getPublisherId());
+        }
+        jdbcTemplate.query(sql, rs -> {
+            String isbn = rs.getString("isbn");
+            results.put(isbn, new UpsertResult(rs.getLong("id"), isbn, UpsertStatus.valueOf(rs.getString("status"))));
+        }, args.toArray());
+    }
+}
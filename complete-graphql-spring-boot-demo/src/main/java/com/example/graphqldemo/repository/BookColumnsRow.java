@@ -0,0 +1,16 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.entity.Genre;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection with just the columns the in-memory filter snapshot evaluates
+ */
+public interface BookColumnsRow {
+    Long getId();
+    Genre getGenre();
+    BigDecimal getPrice();
+    LocalDateTime getPublishedDate();
+}
@@ -0,0 +1,25 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.BookFacets;
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.dto.FacetCount;
+
+import java.util.List;
+
+/**
+ * Aggregate read queries over books, implemented with plain SQL
+ */
+public interface BookFacetOperations {
+
+    /**
+     * Genre, tag and price-range counts for the books matching a filter, in one grouped pass
+     * A book counts once per facet value even when it carries several tags.
+     */
+    BookFacets bookFacets(BookFilter filter);
+
+    /**
+     * Every tag with the number of books carrying it, most popular first
+     * Answered by an index-only scan of the book_tags (tag, book_id) index.
+     */
+    List<FacetCount> tagCounts();
+}
@@ -0,0 +1,122 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.BookFacets;
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.dto.FacetCount;
+import com.example.graphqldemo.dto.PriceBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plain-SQL implementation of {@link BookFacetOperations}
+ * Picked up by Spring Data as the fragment implementation behind {@link BookRepository}.
+ */
+public class BookFacetOperationsImpl implements BookFacetOperations {
+
+    // GROUPING(genre, tag, bucket) has a bit set for every column rolled up in a row, so it tells
+    // apart which grouping set the row belongs to. Counting distinct ids keeps books with several
+    // tags from being counted more than once in the genre, price and total rows.
+    private static final String FACETS_SQL =
+            "SELECT f.genre, f.tag, f.bucket, GROUPING(f.genre, f.tag, f.bucket) AS grouping_set," +
+            "       COUNT(DISTINCT f.id) AS cnt " +
+            "FROM (" +
+            "    SELECT b.id, b.genre, t.tag, width_bucket(b.price, ?::numeric[]) AS bucket" +
+            "    FROM books b LEFT JOIN book_tags t ON t.book_id = b.id" +
+            "    WHERE TRUE%s" +
+            ") f " +
+            "GROUP BY GROUPING SETS ((f.genre), (f.tag), (f.bucket), ())";
+
+    private static final String TAG_COUNTS_SQL =
+            "SELECT tag, COUNT(*) AS cnt FROM book_tags GROUP BY tag ORDER BY cnt DESC, tag";
+
+    private static final int GENRE_SET = 0b011;
+    private static final int TAG_SET = 0b101;
+    private static final int BUCKET_SET = 0b110;
+    private static final int TOTAL_SET = 0b111;
+
+    private static final Comparator<FacetCount> BY_COUNT =
+            Comparator.comparingLong(FacetCount::getCount).reversed().thenComparing(FacetCount::getValue);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BigDecimal[] priceBounds;
+
+    private final int maxTags;
+
+    public BookFacetOperationsImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.facets.price-bounds:10,20,30,50}") BigDecimal[] priceBounds,
+                                   @Value("${app.facets.max-tags:20}") int maxTags) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceBounds = priceBounds;
+        this.maxTags = maxTags;
+    }
+
+    @Override
+    public BookFacets bookFacets(BookFilter filter) {
+        StringBuilder predicates = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        BookFilterSql.appendPredicates(filter, "b", predicates, args);
+
+        List<FacetCount> genres = new ArrayList<>();
+        List<FacetCount> tags = new ArrayList<>();
+        long[] bucketCounts = new long[priceBounds.length + 1];
+        long[] total = new long[1];
+
+        jdbcTemplate.query(String.format(FACETS_SQL, predicates), ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("numeric", priceBounds));
+            for (int i = 0; i < args.size(); i++) {
+                StatementCreatorUtils.setParameterValue(ps, i + 2, SqlTypeValue.TYPE_UNKNOWN, args.get(i));
+            }
+        }, rs -> {
+            long count = rs.getLong("cnt");
+            switch (rs.getInt("grouping_set")) {
+                case GENRE_SET -> {
+                    String genre = rs.getString("genre");
+                    if (genre != null) {
+                        genres.add(new FacetCount(genre, count));
+                    }
+                }
+                case TAG_SET -> {
+                    // Books without tags form a null group, which is not a facet value
+                    String tag = rs.getString("tag");
+                    if (tag != null) {
+                        tags.add(new FacetCount(tag, count));
+                    }
+                }
+                case BUCKET_SET -> {
+                    int bucket = rs.getInt("bucket");
+                    if (!rs.wasNull()) {
+                        bucketCounts[bucket] = count;
+                    }
+                }
+                case TOTAL_SET -> total[0] = count;
+                default -> { }
+            }
+        });
+
+        genres.sort(BY_COUNT);
+        tags.sort(BY_COUNT);
+
+        // width_bucket numbers the range below the first bound 0 and the one from the last bound up n
+        List<PriceBucket> priceRanges = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            BigDecimal min = i == 0 ? null : priceBounds[i - 1];
+            BigDecimal max = i == priceBounds.length ? null : priceBounds[i];
+            priceRanges.add(new PriceBucket(min, max, bucketCounts[i]));
+        }
+
+        return new BookFacets(total[0], genres, List.copyOf(tags.subList(0, Math.min(maxTags, tags.size()))), priceRanges);
+    }
+
+    @Override
+    public List<FacetCount> tagCounts() {
+        return jdbcTemplate.query(TAG_COUNTS_SQL, (rs, rowNum) -> new FacetCount(rs.getString("tag"), rs.getLong("cnt")));
+    }
+}
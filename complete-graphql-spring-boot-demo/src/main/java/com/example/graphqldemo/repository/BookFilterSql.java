@@ -0,0 +1,71 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.BookFilter;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders a {@link BookFilter} as SQL predicates over the books table
+ * For the plain-SQL repository fragments; the JPQL queries in BookRepository express the same criteria.
+ */
+final class BookFilterSql {
+
+    private BookFilterSql() {}
+
+    /**
+     * Append " AND ..." predicates for every criterion set in the filter, collecting bind values in args
+     *
+     * @param alias table alias of books in the surrounding statement
+     */
+    static void appendPredicates(BookFilter filter, String alias, StringBuilder sql, List<Object> args) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getTitle() != null) {
+            sql.append(" AND ").append(alias).append(".title ILIKE ?");
+            args.add("%" + BookRepository.escapeLike(filter.getTitle()) + "%");
+        }
+        if (filter.getAuthor() != null) {
+            sql.append(" AND ").append(alias).append(".author_id IN (SELECT a.id FROM authors a")
+               .append(" WHERE (a.first_name || ' ' || a.last_name) ILIKE ?)");
+            args.add("%" + BookRepository.escapeLike(filter.getAuthor()) + "%");
+        }
+        if (filter.getGenre() != null) {
+            sql.append(" AND ").append(alias).append(".genre = ?");
+            args.add(filter.getGenre().name());
+        }
+        if (filter.getMinPrice() != null) {
+            sql.append(" AND ").append(alias).append(".price >= ?");
+            args.add(filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            sql.append(" AND ").append(alias).append(".price <= ?");
+            args.add(filter.getMaxPrice());
+        }
+        if (filter.getPublishedAfter() != null) {
+            sql.append(" AND ").append(alias).append(".published_date >= ?");
+            args.add(filter.getPublishedAfter());
+        }
+        // Both tag criteria start from the tag side, using the book_tags (tag, book_id) index
+        if (filter.getTagsAny() != null && !filter.getTagsAny().isEmpty()) {
+            Set<String> tags = new LinkedHashSet<>(filter.getTagsAny());
+            sql.append(" AND ").append(alias).append(".id IN (SELECT bt.book_id FROM book_tags bt WHERE bt.tag IN (")
+               .append(placeholders(tags.size())).append("))");
+            args.addAll(tags);
+        }
+        if (filter.getTagsAll() != null && !filter.getTagsAll().isEmpty()) {
+            Set<String> tags = new LinkedHashSet<>(filter.getTagsAll());
+            sql.append(" AND ").append(alias).append(".id IN (SELECT bt.book_id FROM book_tags bt WHERE bt.tag IN (")
+               .append(placeholders(tags.size())).append(") GROUP BY bt.book_id HAVING COUNT(*) = ?)");
+            args.addAll(tags);
+            args.add(tags.size());
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.entity.Genre;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection with just the columns the in-memory rankings need
+ */
+public interface BookRankingRow {
+    Long getId();
+    Genre getGenre();
+    Double getRating();
+    LocalDateTime getPublishedDate();
+}
@@ -11,10 +11,11 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookBulkOperations, BookFacetOperations {
 
     // Custom query methods for filtering
     List<Book> findByAuthorId(Long authorId);
@@ -23,21 +24,88 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     List<Book> findByTitleContainingIgnoreCase(String title);
 
+    /**
+     * publishedAfter to pass when a filter has none
+     * findBooksWithFilter keeps the published_date criterion a plain range predicate (no "IS NULL OR"),
+     * which is what lets PostgreSQL prune the yearly books partitions when a real bound is given.
+     */
+    LocalDateTime PUBLISHED_ANY_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    /**
+     * Escape LIKE wildcards so a filter value matches literally; pass title and author through this
+     */
+    static String escapeLike(String value) {
+        return value == null ? null : value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     @Query("SELECT b FROM Book b WHERE " +
-           "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', CAST(:title AS String), '%')) ESCAPE '\\') AND " +
+           "(:author IS NULL OR b.author.id IN (SELECT a.id FROM Author a WHERE LOWER(CONCAT(a.firstName, ' ', a.lastName)) " +
+           "                                    LIKE LOWER(CONCAT('%', CAST(:author AS String), '%')) ESCAPE '\\')) AND " +
            "(:genre IS NULL OR b.genre = :genre) AND " +
            "(:minPrice IS NULL OR b.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR b.price <= :maxPrice) AND " +
-           "(:publishedAfter IS NULL OR b.publishedDate >= :publishedAfter)")
+           "b.publishedDate >= :publishedAfter AND " +
+           "(:tagsAnyCount = 0 OR b.id IN (SELECT bt.id FROM Book bt JOIN bt.tags t WHERE t IN :tagsAny)) AND " +
+           "(:tagsAllCount = 0 OR b.id IN (SELECT bt.id FROM Book bt JOIN bt.tags t WHERE t IN :tagsAll " +
+           "                               GROUP BY bt.id HAVING COUNT(t) = :tagsAllCount))")
     Page<Book> findBooksWithFilter(
             @Param("title") String title,
+            @Param("author") String author,
             @Param("genre") Genre genre,
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             @Param("publishedAfter") LocalDateTime publishedAfter,
+            @Param("tagsAny") Collection<String> tagsAny,
+            @Param("tagsAnyCount") int tagsAnyCount,
+            @Param("tagsAll") Collection<String> tagsAll,
+            @Param("tagsAllCount") int tagsAllCount,
             Pageable pageable
     );
 
+    // Ranking loads for the in-memory leaderboards, served by the (genre, rating DESC) and
+    // (genre, published_date DESC) indexes
+    @Query("SELECT b.id AS id, b.genre AS genre, b.rating AS rating, b.publishedDate AS publishedDate " +
+           "FROM Book b WHERE b.genre = :genre AND b.rating IS NOT NULL ORDER BY b.rating DESC, b.id")
+    List<BookRankingRow> findTopRated(@Param("genre") Genre genre, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.genre AS genre, b.rating AS rating, b.publishedDate AS publishedDate " +
+           "FROM Book b WHERE b.genre = :genre ORDER BY b.publishedDate DESC, b.id")
+    List<BookRankingRow> findNewest(@Param("genre") Genre genre, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.genre AS genre, b.rating AS rating, b.publishedDate AS publishedDate " +
+           "FROM Book b WHERE b.id IN :ids")
+    List<BookRankingRow> findRankingRows(@Param("ids") Collection<Long> ids);
+
+    // Titles for the autocomplete index
+    @Query("SELECT b.id AS id, b.title AS label FROM Book b")
+    List<LabelRow> findAllLabels();
+
+    @Query("SELECT b.id AS id, b.title AS label FROM Book b WHERE b.id IN :ids")
+    List<LabelRow> findLabels(@Param("ids") Collection<Long> ids);
+
+    // Filterable columns for the in-memory filter snapshot, in id order
+    @Query("SELECT b.id AS id, b.genre AS genre, b.price AS price, b.publishedDate AS publishedDate " +
+           "FROM Book b ORDER BY b.id")
+    List<BookColumnsRow> findAllColumns();
+
+    @Query("SELECT b.id AS id, b.genre AS genre, b.price AS price, b.publishedDate AS publishedDate " +
+           "FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<BookColumnsRow> findColumns(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id AS bookId, t AS tag FROM Book b JOIN b.tags t")
+    List<BookTagRow> findAllTags();
+
+    @Query("SELECT b.id AS bookId, t AS tag FROM Book b JOIN b.tags t WHERE b.id IN :ids")
+    List<BookTagRow> findTags(@Param("ids") Collection<Long> ids);
+
+    // Genre and author for the similar-books index; tags come from findAllTags / findTags
+    @Query("SELECT b.id AS id, b.genre AS genre, b.author.id AS authorId FROM Book b")
+    List<BookSimilarityRow> findAllSimilarityRows();
+
+    @Query("SELECT b.id AS id, b.genre AS genre, b.author.id AS authorId FROM Book b WHERE b.id IN :ids")
+    List<BookSimilarityRow> findSimilarityRows(@Param("ids") Collection<Long> ids);
+
     // Search across multiple fields
     @Query("SELECT b FROM Book b JOIN b.author a WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -0,0 +1,12 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.entity.Genre;
+
+/**
+ * Projection with the columns the similar-books index compares, besides tags
+ */
+public interface BookSimilarityRow {
+    Long getId();
+    Genre getGenre();
+    Long getAuthorId();
+}
@@ -0,0 +1,9 @@
+package com.example.graphqldemo.repository;
+
+/**
+ * Projection of one book_tags row, for the in-memory filter snapshot
+ */
+public interface BookTagRow {
+    Long getBookId();
+    String getTag();
+}
@@ -0,0 +1,9 @@
+package com.example.graphqldemo.repository;
+
+/**
+ * Projection of an entity's id and display label, for the autocomplete index
+ */
+public interface LabelRow {
+    Long getId();
+    String getLabel();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +14,13 @@ public interface PublisherRepository extends JpaRepository<Publisher, Long> {
 
     List<Publisher> findByNameContainingIgnoreCase(String name);
 
+    // Names for the autocomplete index
+    @Query("SELECT p.id AS id, p.name AS label FROM Publisher p")
+    List<LabelRow> findAllLabels();
+
+    @Query("SELECT p.id AS id, p.name AS label FROM Publisher p WHERE p.id IN :ids")
+    List<LabelRow> findLabels(@Param("ids") Collection<Long> ids);
+
     // Search publishers
     @Query("SELECT p FROM Publisher p WHERE " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -3,16 +3,28 @@ package com.example.graphqldemo.resolver;
 import com.example.graphqldemo.entity.Author;
 import com.example.graphqldemo.entity.Book;
 import com.example.graphqldemo.entity.Publisher;
+import com.example.graphqldemo.execution.RequestClock;
+import graphql.GraphQLContext;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
-import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * GraphQL Resolvers (DataFetchers) for Book entity
- * Demonstrates how to resolve nested fields and relationships
+ * Demonstrates how to resolve nested fields and relationships.
+ * Annotated @Controller: Spring GraphQL only detects @SchemaMapping methods on controllers
  */
-@Component
+@Controller
 public class BookResolver {
 
+    // Catalogs have few distinct prices; the cap only guards against unbounded growth
+    private static final int MAX_CACHED_PRICES = 10_000;
+
+    private final Map<BigDecimal, String> displayPrices = new ConcurrentHashMap<>();
+
     /**
      * Resolver for Book.author field
      * This is called when the author field is requested in a Book query
@@ -35,16 +47,30 @@ public class BookResolver {
 
     /**
      * Resolver for computed fields
-     * These fields are calculated dynamically and not stored in database
+     * These fields are calculated dynamically and not stored in database.
+     * Ages use the operation's clock snapshot; display prices are formatted once per distinct price
      */
     @SchemaMapping
     public String displayPrice(Book book) {
-        return book.getDisplayPrice();
+        BigDecimal price = book.getPrice();
+        String displayPrice = displayPrices.get(price);
+        if (displayPrice == null) {
+            displayPrice = book.getDisplayPrice();
+            if (displayPrices.size() < MAX_CACHED_PRICES) {
+                displayPrices.put(price, displayPrice);
+            }
+        }
+        return displayPrice;
     }
 
     @SchemaMapping
-    public Integer ageInYears(Book book) {
-        return book.getAgeInYears();
+    public Integer ageInYears(Book book, GraphQLContext context) {
+        return RequestClock.of(context).yearsSince(book.getPublishedDate());
+    }
+
+    @SchemaMapping(typeName = "Author")
+    public Integer age(Author author, GraphQLContext context) {
+        return author.getBirthDate() != null ? RequestClock.of(context).yearsSince(author.getBirthDate()) : null;
     }
 
     /**
@@ -0,0 +1,55 @@
+package com.example.graphqldemo.resolver;
+
+import com.example.graphqldemo.entity.Author;
+import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.entity.Publisher;
+import graphql.TrivialDataFetcher;
+import graphql.schema.idl.RuntimeWiring;
+
+import java.util.function.Function;
+
+/**
+ * Explicit DataFetchers for the plain entity fields
+ * Each field calls its getter directly instead of going through PropertyDataFetcher's per-field
+ * property lookup. Fields resolved by {@link BookResolver} (including Author.age) are left to it.
+ */
+public final class EntityFieldFetchers {
+
+    private EntityFieldFetchers() {}
+
+    public static void register(RuntimeWiring.Builder wiringBuilder) {
+        wiringBuilder
+                .type("Book", type -> type
+                        .dataFetcher("id", property(Book::getId))
+                        .dataFetcher("title", property(Book::getTitle))
+                        .dataFetcher("isbn", property(Book::getIsbn))
+                        .dataFetcher("price", property(Book::getPrice))
+                        .dataFetcher("publishedDate", property(Book::getPublishedDate))
+                        .dataFetcher("genre", property(Book::getGenre))
+                        .dataFetcher("description", property(Book::getDescription))
+                        .dataFetcher("ratingCount", property(Book::getRatingCount)))
+                .type("Author", type -> type
+                        .dataFetcher("id", property(Author::getId))
+                        .dataFetcher("firstName", property(Author::getFirstName))
+                        .dataFetcher("lastName", property(Author::getLastName))
+                        .dataFetcher("email", property(Author::getEmail))
+                        .dataFetcher("birthDate", property(Author::getBirthDate))
+                        .dataFetcher("biography", property(Author::getBiography))
+                        .dataFetcher("fullName", property(Author::getFullName))
+                        .dataFetcher("books", property(Author::getBooks))
+                        // Deprecated name is the full name; read it without the deprecated getter
+                        .dataFetcher("name", property(Author::getFullName)))
+                .type("Publisher", type -> type
+                        .dataFetcher("id", property(Publisher::getId))
+                        .dataFetcher("name", property(Publisher::getName))
+                        .dataFetcher("address", property(Publisher::getAddress))
+                        .dataFetcher("website", property(Publisher::getWebsite))
+                        .dataFetcher("books", property(Publisher::getBooks))
+                        .dataFetcher("bookCount", property(Publisher::getBookCount)));
+    }
+
+    // Trivial like PropertyDataFetcher, so instrumentations still skip wrapping these fields
+    private static <S> TrivialDataFetcher<Object> property(Function<S, ?> getter) {
+        return environment -> getter.apply(environment.getSource());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.graphqldemo.resolver;
+
+import com.example.graphqldemo.entity.Book;
+import com.example.graphqldemo.repository.BookRepository;
+import com.example.graphqldemo.service.SimilarBooksIndex;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolver for Book.similar
+ * The ids come from the precomputed {@link SimilarBooksIndex}; the books themselves are loaded
+ * through a DataLoader, so a list of N books with their similar books takes one query, not N.
+ */
+@Controller
+public class SimilarBooksResolver {
+
+    private final SimilarBooksIndex similarBooksIndex;
+
+    public SimilarBooksResolver(SimilarBooksIndex similarBooksIndex, BookRepository bookRepository,
+                                BatchLoaderRegistry batchLoaderRegistry) {
+        this.similarBooksIndex = similarBooksIndex;
+        batchLoaderRegistry.forTypePair(Long.class, Book.class).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromCallable(() -> bookRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Book::getId, Function.identity()))));
+    }
+
+    @SchemaMapping
+    public CompletableFuture<List<Book>> similar(Book book, @Argument Integer first, DataLoader<Long, Book> books) {
+        List<Long> ids = similarBooksIndex.similarIds(book.getId(), first != null ? first : 5);
+        // Books deleted since the index was updated load as null and are skipped
+        return books.loadMany(ids).thenApply(loaded -> loaded.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+}
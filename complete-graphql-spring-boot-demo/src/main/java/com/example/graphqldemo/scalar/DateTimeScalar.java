@@ -23,16 +23,25 @@ public class DateTimeScalar {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    /**
+     * GraphQLContext key set by the streaming HTTP handler. When present, serialize() hands back
+     * the LocalDateTime itself and the response writer encodes it without an intermediate String.
+     */
+    public static final String RAW_OUTPUT_KEY = DateTimeScalar.class.getName() + ".rawOutput";
+
     public static final GraphQLScalarType INSTANCE = GraphQLScalarType.newScalar()
             .name("DateTime")
             .description("A custom scalar that represents a LocalDateTime")
-            .coercing(new Coercing<LocalDateTime, String>() {
+            .coercing(new Coercing<LocalDateTime, Object>() {
 
                 @Override
-                public String serialize(Object dataFetcherResult, GraphQLContext graphQLContext, Locale locale) 
+                public Object serialize(Object dataFetcherResult, GraphQLContext graphQLContext, Locale locale) 
                         throws CoercingSerializeException {
                     if (dataFetcherResult instanceof LocalDateTime) {
-                        return ((LocalDateTime) dataFetcherResult).format(FORMATTER);
+                        if (graphQLContext != null && Boolean.TRUE.equals(graphQLContext.get(RAW_OUTPUT_KEY))) {
+                            return dataFetcherResult;
+                        }
+                        return format((LocalDateTime) dataFetcherResult);
                     } else if (dataFetcherResult instanceof String) {
                         return (String) dataFetcherResult;
                     } else {
@@ -75,4 +84,8 @@ public class DateTimeScalar {
                 }
             })
             .build();
+
+    public static String format(LocalDateTime dateTime) {
+        return dateTime.format(FORMATTER);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.dto.AutocompleteHit;
+import com.example.graphqldemo.dto.AutocompleteKind;
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.event.CatalogFlushEvent;
+import com.example.graphqldemo.repository.AuthorRepository;
+import com.example.graphqldemo.repository.BookRepository;
+import com.example.graphqldemo.repository.LabelRow;
+import com.example.graphqldemo.repository.PublisherRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over book titles, author full names and publisher names
+ * Every word start of a normalized label (lower case, accents stripped) is a key in one sorted
+ * map, so "orw" finds "George Orwell" and a lookup is a range scan from the prefix. The index is
+ * built at startup and kept current from {@link CatalogChangedEvent}s; lookups never touch the
+ * database.
+ */
+@Service
+public class AutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    // Sorts after any character a normalized key can contain, closing the prefix range
+    private static final char RANGE_END = '\uffff';
+
+    // Separates the indexed text from the hit identity so equal labels get distinct keys
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private static final int MAX_WORDS_PER_LABEL = 8;
+
+    private final NavigableMap<String, AutocompleteHit> entries = new ConcurrentSkipListMap<>();
+
+    // Keys currently indexed for each hit, so an update can remove the old ones
+    private final Map<String, List<String>> keysByHit = new ConcurrentHashMap<>();
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final PublisherRepository publisherRepository;
+
+    private final int maxResults;
+
+    public AutocompleteIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+                             PublisherRepository publisherRepository,
+                             @Value("${app.autocomplete.max-results:50}") int maxResults) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Index every label in the database
+     * Also rebuilds in place after a flush: labels are upserted, then hits indexed before the
+     * rebuild whose rows no longer exist are removed, so lookups keep working throughout.
+     */
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    public void build() {
+        Set<String> before = new HashSet<>(keysByHit.keySet());
+        Set<String> seen = new HashSet<>();
+        bookRepository.findAllLabels().forEach(row -> seen.add(put(AutocompleteKind.BOOK, row)));
+        authorRepository.findAllLabels().forEach(row -> seen.add(put(AutocompleteKind.AUTHOR, row)));
+        publisherRepository.findAllLabels().forEach(row -> seen.add(put(AutocompleteKind.PUBLISHER, row)));
+        before.removeAll(seen);
+        before.forEach(this::removeHit);
+        log.info("Autocomplete index built: {} labels", keysByHit.size());
+    }
+
+    /**
+     * Suggestions whose label has a word starting with the prefix, in key order
+     *
+     * @param first number of suggestions wanted; capped at app.autocomplete.max-results
+     */
+    public List<AutocompleteHit> complete(String prefix, int first) {
+        String from = prefix != null ? normalize(prefix).trim() : "";
+        first = Math.min(first, maxResults);
+        if (from.isEmpty() || first <= 0) {
+            return Collections.emptyList();
+        }
+        // Most prefixes match far fewer labels than asked for
+        List<AutocompleteHit> hits = new ArrayList<>(Math.min(first, 16));
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, AutocompleteHit> entry : entries.subMap(from, true, from + RANGE_END, false).entrySet()) {
+            AutocompleteHit hit = entry.getValue();
+            // A label with two words starting with the prefix is indexed twice
+            if (seen.add(hitKey(hit.getKind(), hit.getId()))) {
+                hits.add(hit);
+                if (hits.size() == first) {
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getIds().isEmpty()) {
+            return;
+        }
+        AutocompleteKind kind;
+        List<LabelRow> rows;
+        switch (event.getKind()) {
+            case BOOK -> {
+                kind = AutocompleteKind.BOOK;
+                rows = bookRepository.findLabels(event.getIds());
+            }
+            case AUTHOR -> {
+                kind = AutocompleteKind.AUTHOR;
+                rows = authorRepository.findLabels(event.getIds());
+            }
+            case PUBLISHER -> {
+                kind = AutocompleteKind.PUBLISHER;
+                rows = publisherRepository.findLabels(event.getIds());
+            }
+            default -> {
+                return;
+            }
+        }
+        // Ids missing from the result were deleted
+        Set<Long> remaining = new HashSet<>(event.getIds());
+        for (LabelRow row : rows) {
+            put(kind, row);
+            remaining.remove(row.getId());
+        }
+        for (Long id : remaining) {
+            remove(kind, id);
+        }
+    }
+
+    private synchronized String put(AutocompleteKind kind, LabelRow row) {
+        String hitKey = hitKey(kind, row.getId());
+        AutocompleteHit hit = new AutocompleteHit(kind, row.getId(), row.getLabel());
+        List<String> keys = keysFor(row.getLabel(), hitKey);
+
+        List<String> previous = keysByHit.put(hitKey, keys);
+        if (previous != null) {
+            previous.forEach(entries::remove);
+        }
+        for (String key : keys) {
+            entries.put(key, hit);
+        }
+        return hitKey;
+    }
+
+    private void remove(AutocompleteKind kind, Long id) {
+        removeHit(hitKey(kind, id));
+    }
+
+    private synchronized void removeHit(String hitKey) {
+        List<String> previous = keysByHit.remove(hitKey);
+        if (previous != null) {
+            previous.forEach(entries::remove);
+        }
+    }
+
+    private static List<String> keysFor(String label, String hitKey) {
+        if (label == null) {
+            return Collections.emptyList();
+        }
+        String text = normalize(label);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < text.length() && keys.size() < MAX_WORDS_PER_LABEL; i++) {
+            boolean wordStart = Character.isLetterOrDigit(text.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (wordStart) {
+                keys.add(text.substring(i) + KEY_SEPARATOR + hitKey);
+            }
+        }
+        return keys;
+    }
+
+    private static String hitKey(AutocompleteKind kind, Long id) {
+        return kind.name() + ':' + id;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.dto.BookFacets;
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.dto.FacetCount;
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.event.CatalogFlushEvent;
+import com.example.graphqldemo.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of facet counts per filter, plus the catalog-wide tag popularity list
+ * Entries expire after app.facets.cache-ttl and are all dropped as soon as a book or author
+ * changes, so counts are never older than the TTL and are fresh right after our own mutations.
+ */
+@Service
+public class BookFacetService {
+
+    private final Map<FilterKey, CachedFacets> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, so a computation that raced with a mutation is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // Tag counts only change with book mutations, so they are kept until the next one
+    private volatile List<FacetCount> tagCounts;
+
+    private final BookRepository bookRepository;
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    public BookFacetService(BookRepository bookRepository,
+                            @Value("${app.facets.cache-ttl:30s}") Duration ttl,
+                            @Value("${app.facets.cache-max-entries:1000}") int maxEntries) {
+        this.bookRepository = bookRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public BookFacets facets(BookFilter filter) {
+        FilterKey key = FilterKey.of(filter);
+        long now = System.nanoTime();
+        CachedFacets cached = cache.get(key);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.facets();
+        }
+
+        long startGeneration = generation.get();
+        BookFacets facets = bookRepository.bookFacets(filter);
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        }
+        if (cache.size() < maxEntries && generation.get() == startGeneration) {
+            cache.put(key, new CachedFacets(facets, now + ttlNanos));
+        }
+        return facets;
+    }
+
+    /**
+     * The most popular tags across the whole catalog
+     */
+    public List<FacetCount> tagCounts(int first) {
+        if (first <= 0) {
+            return List.of();
+        }
+        List<FacetCount> counts = tagCounts;
+        if (counts == null) {
+            long startGeneration = generation.get();
+            counts = bookRepository.tagCounts();
+            if (generation.get() == startGeneration) {
+                tagCounts = counts;
+            }
+        }
+        return counts.subList(0, Math.min(first, counts.size()));
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getKind() == CatalogChangedEvent.Kind.BOOK || event.getKind() == CatalogChangedEvent.Kind.AUTHOR) {
+            invalidate();
+        }
+    }
+
+    @EventListener(CatalogFlushEvent.class)
+    public void invalidate() {
+        generation.incrementAndGet();
+        tagCounts = null;
+        cache.clear();
+    }
+
+    private record CachedFacets(BookFacets facets, long expiresAt) {
+    }
+
+    private record FilterKey(String title, String author, Genre genre, BigDecimal minPrice,
+                             BigDecimal maxPrice, LocalDateTime publishedAfter,
+                             Set<String> tagsAny, Set<String> tagsAll) {
+
+        static FilterKey of(BookFilter filter) {
+            if (filter == null) {
+                return new FilterKey(null, null, null, null, null, null, null, null);
+            }
+            return new FilterKey(filter.getTitle(), filter.getAuthor(), filter.getGenre(),
+                    normalize(filter.getMinPrice()), normalize(filter.getMaxPrice()), filter.getPublishedAfter(),
+                    tagSet(filter.getTagsAny()), tagSet(filter.getTagsAll()));
+        }
+
+        // Tag criteria are sets: order and repeats do not change the result
+        private static Set<String> tagSet(List<String> tags) {
+            return tags != null && !tags.isEmpty() ? Set.copyOf(tags) : null;
+        }
+
+        // 10 and 10.00 are the same bound but not equal() as BigDecimals
+        private static BigDecimal normalize(BigDecimal value) {
+            return value != null ? value.stripTrailingZeros() : null;
+        }
+    }
+}
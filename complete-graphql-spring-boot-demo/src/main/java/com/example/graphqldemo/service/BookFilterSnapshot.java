@@ -0,0 +1,275 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.dto.BookFilter;
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.event.CatalogFlushEvent;
+import com.example.graphqldemo.repository.BookColumnsRow;
+import com.example.graphqldemo.repository.BookRepository;
+import com.example.graphqldemo.repository.BookTagRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Columnar in-memory copy of the filterable book columns, behind books(filter:)
+ * Genre ordinals, prices in cents and publication times in epoch microseconds are held in
+ * primitive arrays, one row per book in id order, with a bitmap of rows per genre and per tag.
+ * A filter is evaluated here to one page of ids, so only that page is loaded from the database.
+ * Changes are applied in place from {@link CatalogChangedEvent}s; deleted books leave dead rows
+ * until there are more dead rows than live ones, and then the snapshot is rebuilt.
+ *
+ * Off unless app.books.snapshot.enabled=true. Title and author filters are still evaluated by the database.
+ */
+@Service
+public class BookFilterSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(BookFilterSnapshot.class);
+
+    private static final int MIN_DEAD_ROWS_BEFORE_REBUILD = 1024;
+
+    private final BookRepository bookRepository;
+
+    private final boolean enabled;
+
+    // Readers evaluate under the read lock; incremental updates edit the arrays under the write lock.
+    // Rebuilds assemble a new Columns off to the side and swap it in.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Columns columns;
+
+    public BookFilterSnapshot(BookRepository bookRepository,
+                              @Value("${app.books.snapshot.enabled:false}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Ids of one page of books matching the filter, in id order
+     *
+     * @return null if the snapshot cannot answer: it is disabled or not built yet, or the filter has a title or author
+     */
+    public List<Long> findIds(BookFilter filter, int offset, int limit) {
+        if (!enabled || filter == null || filter.getTitle() != null || filter.getAuthor() != null) {
+            return null;
+        }
+        long minCents = filter.getMinPrice() != null ? cents(filter.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = filter.getMaxPrice() != null ? cents(filter.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        long after = filter.getPublishedAfter() != null ? micros(filter.getPublishedAfter()) : Long.MIN_VALUE;
+
+        lock.readLock().lock();
+        try {
+            Columns current = columns;
+            return current == null ? null : current.find(filter.getGenre(), minCents, maxCents, after,
+                    filter.getTagsAny(), filter.getTagsAll(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    public synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+        List<BookColumnsRow> rows = bookRepository.findAllColumns();
+        Columns fresh = new Columns(rows.size());
+        rows.forEach(fresh::put);
+        // A book inserted between the two queries has no row yet; its change event adds it
+        bookRepository.findAllTags().forEach(tag -> fresh.tag(tag.getBookId(), tag.getTag()));
+        columns = fresh;
+        log.info("Book filter snapshot built: {} books, {} tags", fresh.liveRows, fresh.byTag.size());
+    }
+
+    /**
+     * Synchronized with build(), so a change either made it into a rebuild or is applied after it
+     */
+    @EventListener
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        Columns current = columns;
+        if (current == null || event.getKind() != CatalogChangedEvent.Kind.BOOK || event.getIds().isEmpty()) {
+            return;
+        }
+        // Ids missing from the result were deleted and are only removed
+        List<BookColumnsRow> rows = bookRepository.findColumns(event.getIds());
+        Map<Long, List<String>> tags = bookRepository.findTags(event.getIds()).stream()
+                .collect(Collectors.groupingBy(BookTagRow::getBookId,
+                        Collectors.mapping(BookTagRow::getTag, Collectors.toList())));
+
+        boolean inOrder = true;
+        lock.writeLock().lock();
+        try {
+            event.getIds().forEach(current::remove);
+            for (BookColumnsRow row : rows) {
+                if (current.put(row)) {
+                    tags.getOrDefault(row.getId(), List.of()).forEach(tag -> current.tag(row.getId(), tag));
+                } else {
+                    inOrder = false;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int deadRows = current.size - current.liveRows;
+        if (!inOrder || deadRows > Math.max(MIN_DEAD_ROWS_BEFORE_REBUILD, current.liveRows)) {
+            build();
+        }
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    private static final class Columns {
+        private long[] ids;
+        private int[] genres;
+        private long[] priceCents;
+        private long[] publishedMicros;
+        private int size;
+        private int liveRows;
+
+        private final BitSet live = new BitSet();
+        private final BitSet[] byGenre = new BitSet[Genre.values().length];
+        private final Map<String, BitSet> byTag = new HashMap<>();
+
+        Columns(int capacity) {
+            capacity = Math.max(16, capacity + capacity / 8);
+            ids = new long[capacity];
+            genres = new int[capacity];
+            priceCents = new long[capacity];
+            publishedMicros = new long[capacity];
+            for (int i = 0; i < byGenre.length; i++) {
+                byGenre[i] = new BitSet();
+            }
+        }
+
+        List<Long> find(Genre genre, long minCents, long maxCents, long after,
+                        Collection<String> tagsAny, Collection<String> tagsAll, int offset, int limit) {
+            BitSet candidates = (BitSet) live.clone();
+            if (genre != null) {
+                candidates.and(byGenre[genre.ordinal()]);
+            }
+            if (tagsAny != null && !tagsAny.isEmpty()) {
+                BitSet any = new BitSet();
+                for (String tag : tagsAny) {
+                    BitSet rows = byTag.get(tag);
+                    if (rows != null) {
+                        any.or(rows);
+                    }
+                }
+                candidates.and(any);
+            }
+            if (tagsAll != null) {
+                for (String tag : tagsAll) {
+                    BitSet rows = byTag.get(tag);
+                    if (rows == null) {
+                        return List.of();
+                    }
+                    candidates.and(rows);
+                }
+            }
+
+            List<Long> page = new ArrayList<>(Math.min(limit, 1000));
+            int skipped = 0;
+            for (int row = candidates.nextSetBit(0); row >= 0 && page.size() < limit;
+                 row = candidates.nextSetBit(row + 1)) {
+                if (priceCents[row] < minCents || priceCents[row] > maxCents || publishedMicros[row] < after) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                page.add(ids[row]);
+            }
+            return page;
+        }
+
+        /**
+         * Overwrite the book's row, or append one for a new book
+         *
+         * @return false if a new book's id is lower than the last row's, which needs a rebuild
+         */
+        boolean put(BookColumnsRow book) {
+            int row = indexOf(book.getId());
+            if (row < 0) {
+                if (size > 0 && book.getId() < ids[size - 1]) {
+                    return false;
+                }
+                row = append(book.getId());
+            }
+            if (live.get(row)) {
+                byGenre[genres[row]].clear(row);
+            } else {
+                live.set(row);
+                liveRows++;
+            }
+            genres[row] = book.getGenre().ordinal();
+            priceCents[row] = cents(book.getPrice(), RoundingMode.HALF_UP);
+            publishedMicros[row] = micros(book.getPublishedDate());
+            byGenre[genres[row]].set(row);
+            return true;
+        }
+
+        void tag(long bookId, String tag) {
+            int row = indexOf(bookId);
+            if (row >= 0 && live.get(row)) {
+                byTag.computeIfAbsent(tag, t -> new BitSet()).set(row);
+            }
+        }
+
+        void remove(long bookId) {
+            int row = indexOf(bookId);
+            if (row < 0 || !live.get(row)) {
+                return;
+            }
+            live.clear(row);
+            liveRows--;
+            byGenre[genres[row]].clear(row);
+            // Rows do not remember their tags; clearing a bit is cheap next to the queries that led here
+            for (BitSet rows : byTag.values()) {
+                rows.clear(row);
+            }
+        }
+
+        // Rows stay in id order, dead ones included, so lookups are a binary search
+        private int indexOf(long bookId) {
+            int row = Arrays.binarySearch(ids, 0, size, bookId);
+            return row >= 0 ? row : -1;
+        }
+
+        private int append(long bookId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                genres = Arrays.copyOf(genres, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                publishedMicros = Arrays.copyOf(publishedMicros, capacity);
+            }
+            ids[size] = bookId;
+            return size++;
+        }
+    }
+}
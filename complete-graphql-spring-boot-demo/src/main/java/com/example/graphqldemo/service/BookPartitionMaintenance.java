@@ -0,0 +1,115 @@
+package com.example.graphqldemo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+
+/**
+ * Keeps yearly partitions of books and book_tag_entries ahead of the calendar
+ * Partitions cover app.books.partitions.first-year up to the current year plus years-ahead;
+ * books published outside that range land in the DEFAULT partitions. When a year's partition is
+ * created after rows for it already went to DEFAULT, those rows are moved into it in the same
+ * transaction. Old years are archived with CALL detach_books_year(year).
+ */
+@Service
+public class BookPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(BookPartitionMaintenance.class);
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s_y%d PARTITION OF %s FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')";
+
+    private static final String YEAR_RANGE = "published_date >= '%d-01-01' AND published_date < '%d-01-01'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int firstYear;
+
+    private final int yearsAhead;
+
+    public BookPartitionMaintenance(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    @Value("${app.books.partitions.first-year:2000}") int firstYear,
+                                    @Value("${app.books.partitions.years-ahead:1}") int yearsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.firstYear = firstYear;
+        this.yearsAhead = yearsAhead;
+    }
+
+    /**
+     * Create any missing yearly partition; existing ones are left alone
+     */
+    @Scheduled(cron = "${app.books.partitions.maintenance-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        int lastYear = Year.now().getValue() + yearsAhead;
+        for (int year = firstYear; year <= lastYear; year++) {
+            int partitionYear = year;
+            try {
+                transactionTemplate.executeWithoutResult(status -> createPartitions(partitionYear));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Could not create partitions for {}", year, e);
+            }
+        }
+    }
+
+    /**
+     * CREATE ... PARTITION OF fails while DEFAULT holds rows of the new range, so those rows are
+     * copied aside, deleted, and inserted again once the partition exists. Deleting a book cascades
+     * to its tags and the ISBN trigger releases its ISBN; re-inserting registers it again.
+     */
+    private void createPartitions(int year) {
+        boolean booksMissing = !exists("books_y" + year);
+        boolean tagsMissing = !exists("book_tag_entries_y" + year);
+        if (!booksMissing && !tagsMissing) {
+            return;
+        }
+        String range = String.format(YEAR_RANGE, year, year + 1);
+
+        if (booksMissing && hasRows("books_default", range)) {
+            jdbcTemplate.execute("CREATE TEMP TABLE moved_books ON COMMIT DROP AS SELECT * FROM books_default WHERE " + range);
+            jdbcTemplate.execute("CREATE TEMP TABLE moved_tags ON COMMIT DROP AS SELECT * FROM book_tag_entries WHERE " + range);
+            jdbcTemplate.execute("DELETE FROM books_default WHERE " + range);
+            createPartition("books", year);
+            createPartition("book_tag_entries", year);
+            int books = jdbcTemplate.update("INSERT INTO books SELECT * FROM moved_books");
+            jdbcTemplate.update("INSERT INTO book_tag_entries SELECT * FROM moved_tags");
+            log.info("Created partitions for {} and moved {} of its books out of DEFAULT", year, books);
+            return;
+        }
+        boolean moveTags = tagsMissing && hasRows("book_tag_entries_default", range);
+        if (moveTags) {
+            jdbcTemplate.execute("CREATE TEMP TABLE moved_tags ON COMMIT DROP AS SELECT * FROM book_tag_entries_default WHERE " + range);
+            jdbcTemplate.execute("DELETE FROM book_tag_entries_default WHERE " + range);
+        }
+        // books first: book_tag_entries rows reference a books row in the same range
+        createPartition("books", year);
+        createPartition("book_tag_entries", year);
+        if (moveTags) {
+            jdbcTemplate.update("INSERT INTO book_tag_entries SELECT * FROM moved_tags");
+        }
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private boolean hasRows(String table, String range) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE " + range + ")", Boolean.class));
+    }
+
+    private void createPartition(String table, int year) {
+        jdbcTemplate.execute(String.format(CREATE_PARTITION_SQL, table, year, table, year, year + 1));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.dto.BookRanking;
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.event.CatalogFlushEvent;
+import com.example.graphqldemo.repository.BookRankingRow;
+import com.example.graphqldemo.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory per-genre top-N rankings behind the topBooks query
+ * Each (ranking, genre) board holds the best books down to a floor entry, and is guaranteed to
+ * contain every book ranking at or above that floor. Changes are applied incrementally from
+ * {@link CatalogChangedEvent}s: a book that climbs above the floor is added, one that drops below
+ * it is removed. A board only goes back to the database (an index range scan) when removals leave
+ * it with fewer entries than a caller asks for.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final Comparator<Entry> RANK_ORDER =
+            Comparator.comparingDouble(Entry::score).reversed().thenComparingLong(Entry::id);
+
+    private final Map<BookRanking, Map<Genre, Board>> boards = new EnumMap<>(BookRanking.class);
+
+    private final BookRepository bookRepository;
+
+    private final int capacity;
+
+    public LeaderboardService(BookRepository bookRepository,
+                              @Value("${app.leaderboards.capacity:100}") int capacity) {
+        this.bookRepository = bookRepository;
+        this.capacity = capacity;
+        for (BookRanking ranking : BookRanking.values()) {
+            Map<Genre, Board> byGenre = new EnumMap<>(Genre.class);
+            for (Genre genre : Genre.values()) {
+                byGenre.put(genre, new Board(ranking, genre));
+            }
+            boards.put(ranking, byGenre);
+        }
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    public void loadAll() {
+        boards.values().forEach(byGenre -> byGenre.values().forEach(Board::reload));
+        log.info("Leaderboards loaded");
+    }
+
+    /**
+     * Ids of the top books for a genre, best first
+     *
+     * @param first number of books wanted; capped at app.leaderboards.capacity
+     */
+    public List<Long> topIds(Genre genre, BookRanking ranking, int first) {
+        if (first <= 0) {
+            return List.of();
+        }
+        return boards.get(ranking).get(genre).top(Math.min(first, capacity));
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        boolean ratingsOnly = event.getKind() == CatalogChangedEvent.Kind.BOOK_RATING;
+        if ((event.getKind() != CatalogChangedEvent.Kind.BOOK && !ratingsOnly) || event.getIds().isEmpty()) {
+            return;
+        }
+        // Ids missing from the result were deleted and are only removed
+        List<BookRankingRow> rows = bookRepository.findRankingRows(event.getIds());
+        boards.forEach((ranking, byGenre) -> {
+            // A rating change cannot move a book on the newest boards
+            if (ratingsOnly && ranking != BookRanking.RATING) {
+                return;
+            }
+            for (Board board : byGenre.values()) {
+                board.apply(event.getIds(), rows);
+            }
+        });
+    }
+
+    private static Double score(BookRanking ranking, BookRankingRow row) {
+        return switch (ranking) {
+            case RATING -> row.getRating();
+            case NEWEST -> (double) row.getPublishedDate().toEpochSecond(ZoneOffset.UTC);
+        };
+    }
+
+    private record Entry(long id, double score) {
+    }
+
+    private final class Board {
+        private final BookRanking ranking;
+        private final Genre genre;
+        private final TreeSet<Entry> entries = new TreeSet<>(RANK_ORDER);
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        // Lowest entry the board is complete down to; null when it holds every book of the genre
+        private Entry floor;
+        private boolean loaded;
+
+        // Rank-ordered ids, republished after every change so reads never lock
+        private volatile long[] snapshot = new long[0];
+
+        Board(BookRanking ranking, Genre genre) {
+            this.ranking = ranking;
+            this.genre = genre;
+        }
+
+        List<Long> top(int first) {
+            long[] ids = snapshot;
+            if (!loaded || (ids.length < first && floor != null)) {
+                reload();
+                ids = snapshot;
+            }
+            int n = Math.min(first, ids.length);
+            Long[] result = new Long[n];
+            for (int i = 0; i < n; i++) {
+                result[i] = ids[i];
+            }
+            return List.of(result);
+        }
+
+        synchronized void reload() {
+            PageRequest page = PageRequest.of(0, capacity);
+            List<BookRankingRow> rows = ranking == BookRanking.RATING
+                    ? bookRepository.findTopRated(genre, page)
+                    : bookRepository.findNewest(genre, page);
+
+            entries.clear();
+            byId.clear();
+            for (BookRankingRow row : rows) {
+                add(new Entry(row.getId(), score(ranking, row)));
+            }
+            floor = rows.size() < capacity ? null : entries.last();
+            loaded = true;
+            publish();
+        }
+
+        synchronized void apply(List<Long> changedIds, List<BookRankingRow> rows) {
+            if (!loaded) {
+                return;
+            }
+            boolean changed = false;
+            for (Long id : changedIds) {
+                Entry old = byId.remove(id);
+                if (old != null) {
+                    entries.remove(old);
+                    changed = true;
+                }
+            }
+            for (BookRankingRow row : rows) {
+                Double score = row.getGenre() == genre ? score(ranking, row) : null;
+                if (score == null) {
+                    continue;
+                }
+                Entry entry = new Entry(row.getId(), score);
+                // Below the floor we cannot tell where it ranks against books we do not hold
+                if (floor == null || RANK_ORDER.compare(entry, floor) <= 0) {
+                    add(entry);
+                    changed = true;
+                }
+            }
+            if (entries.size() > 2 * capacity) {
+                while (entries.size() > capacity) {
+                    byId.remove(entries.pollLast().id());
+                }
+                floor = entries.last();
+            }
+            if (changed) {
+                publish();
+            }
+        }
+
+        private void add(Entry entry) {
+            entries.add(entry);
+            byId.put(entry.id(), entry);
+        }
+
+        private void publish() {
+            long[] ids = new long[entries.size()];
+            int i = 0;
+            for (Entry entry : entries) {
+                ids[i++] = entry.id();
+            }
+            snapshot = ids;
+        }
+    }
+}
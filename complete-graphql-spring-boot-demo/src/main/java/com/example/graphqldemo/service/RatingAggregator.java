@@ -0,0 +1,213 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Write-behind aggregation of user ratings
+ * rateBook only adds to an in-memory accumulator; a scheduled flush folds the accumulated
+ * sums and counts into books.rating_sum / books.rating_count, and the average derived from them
+ * into books.rating, with one UPDATE per flush.
+ *
+ * Each book's accumulator is a small array of stripes. A stripe packs the score sum (in
+ * hundredths) and the count into one long, so a rating is a single lock-free compare-and-set and
+ * the flush drains a stripe with one getAndSet(0) without ever seeing a sum without its count.
+ * The packed count holds up to ~1M ratings per stripe between two flushes. A book whose
+ * accumulator stays empty for a whole flush interval is dropped, so app.ratings.max-tracked-books
+ * bounds the books rated per interval rather than since startup.
+ *
+ * Durability: ratings live only in memory until the next flush (app.ratings.flush-interval).
+ * On a graceful shutdown a final flush runs before the context closes. On a crash or kill -9,
+ * up to one flush interval of ratings is lost; the data already in books.rating stays consistent
+ * because every flush is a single additive statement. A failed flush keeps its drained values
+ * and retries them on the next run.
+ */
+@Service
+public class RatingAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregator.class);
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    // Packed stripes are never negative, so this cannot be mistaken for accumulated ratings
+    private static final long RETIRED = -1L;
+
+    public enum Result { ACCEPTED, BOOK_NOT_FOUND, BACKLOG }
+
+    private final Map<Long, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    private final BookRepository bookRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int stripes;
+
+    private final int maxTrackedBooks;
+
+    public RatingAggregator(BookRepository bookRepository, ApplicationEventPublisher eventPublisher,
+                            @Value("${app.ratings.stripes:8}") int stripes,
+                            @Value("${app.ratings.max-tracked-books:100000}") int maxTrackedBooks) {
+        this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.stripes = stripes;
+        this.maxTrackedBooks = maxTrackedBooks;
+    }
+
+    /**
+     * Record one rating
+     * Only the first rating of a book in a flush interval checks that the book exists; the rest
+     * never leave memory.
+     *
+     * @param score between 1.0 and 5.0, kept to two decimals
+     */
+    public Result rate(Long bookId, double score) {
+        long delta = (Math.round(score * 100) << COUNT_BITS) | 1;
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        while (true) {
+            Accumulator accumulator = accumulators.get(bookId);
+            if (accumulator == null) {
+                if (accumulators.size() >= maxTrackedBooks) {
+                    return Result.BACKLOG;
+                }
+                if (!bookRepository.existsById(bookId)) {
+                    return Result.BOOK_NOT_FOUND;
+                }
+                accumulator = accumulators.computeIfAbsent(bookId, id -> new Accumulator(stripes));
+            }
+            if (accumulator.add(stripe, delta)) {
+                return Result.ACCEPTED;
+            }
+            // Retired by a flush between the lookup and the add; it is gone from the map or about to be
+        }
+    }
+
+    /**
+     * Fold everything accumulated since the last flush into the books table
+     */
+    @Scheduled(fixedDelayString = "${app.ratings.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Accumulator> drainedFrom = new ArrayList<>();
+        List<BigDecimal> sums = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+
+        for (Map.Entry<Long, Accumulator> entry : accumulators.entrySet()) {
+            Accumulator accumulator = entry.getValue();
+            if (!accumulator.drain()) {
+                accumulators.computeIfPresent(entry.getKey(), (id, current) ->
+                        current == accumulator && accumulator.retire() ? null : current);
+                continue;
+            }
+            ids.add(entry.getKey());
+            drainedFrom.add(accumulator);
+            sums.add(BigDecimal.valueOf(accumulator.pendingSum, 2));
+            counts.add(Math.toIntExact(accumulator.pendingCount));
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            bookRepository.applyRatings(ids.toArray(new Long[0]), sums.toArray(new BigDecimal[0]),
+                    counts.toArray(new Integer[0]));
+        } catch (Exception e) {
+            // Pending values stay on their accumulators, which are not retired while they hold any
+            log.warn("Rating flush for {} books failed, retrying next run: {}", ids.size(), e.getMessage());
+            return;
+        }
+        drainedFrom.forEach(Accumulator::clearPending);
+        eventPublisher.publishEvent(CatalogChangedEvent.ratings(ids));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    int trackedBooks() {
+        return accumulators.size();
+    }
+
+    private static final class Accumulator {
+        private final AtomicLongArray stripes;
+
+        // Drained but not yet written; only touched by flush(), which is synchronized
+        private long pendingSum;
+        private long pendingCount;
+
+        Accumulator(int stripes) {
+            this.stripes = new AtomicLongArray(stripes);
+        }
+
+        /**
+         * @return false if the accumulator was retired and the rating must go to a new one
+         */
+        boolean add(int stripe, long delta) {
+            while (true) {
+                long packed = stripes.get(stripe);
+                if (packed == RETIRED) {
+                    return false;
+                }
+                if (stripes.compareAndSet(stripe, packed, packed + delta)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Move the stripes into the pending sum and count
+         *
+         * @return true if anything is pending
+         */
+        boolean drain() {
+            for (int i = 0; i < stripes.length(); i++) {
+                long packed = stripes.getAndSet(i, 0);
+                pendingSum += packed >>> COUNT_BITS;
+                pendingCount += packed & COUNT_MASK;
+            }
+            return pendingCount > 0;
+        }
+
+        void clearPending() {
+            pendingSum = 0;
+            pendingCount = 0;
+        }
+
+        /**
+         * Close every stripe to new ratings, unless one arrived since the drain
+         * Called inside the map's compute for this book. A rater that meets a retired stripe retries
+         * from the map lookup, so it either lands on this accumulator once a failed retirement has
+         * reopened it or on a new one once it has been removed.
+         */
+        boolean retire() {
+            if (pendingCount > 0) {
+                return false;
+            }
+            for (int i = 0; i < stripes.length(); i++) {
+                if (!stripes.compareAndSet(i, 0, RETIRED)) {
+                    for (int j = 0; j < i; j++) {
+                        stripes.set(j, 0);
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
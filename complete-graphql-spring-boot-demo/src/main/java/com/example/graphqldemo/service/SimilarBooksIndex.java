@@ -0,0 +1,355 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.event.CatalogFlushEvent;
+import com.example.graphqldemo.repository.BookRepository;
+import com.example.graphqldemo.repository.BookSimilarityRow;
+import com.example.graphqldemo.repository.BookTagRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed "similar books" lists behind Book.similar
+ * Two books score tag-weight x the Jaccard overlap of their tags, plus author-weight if they share
+ * an author, plus genre-weight if they share a genre. Each book keeps only the ids of its top-K
+ * neighbours. Only books sharing a tag or an author are candidates; on its own, a genre match would
+ * make every book a candidate of a ninth of the catalog for the weakest of the three signals.
+ * For the same reason a tag on more than app.similar.max-tag-books books yields no candidates, much
+ * as IDF discounts common terms, though it still counts in the overlap of books that are candidates.
+ *
+ * The index is built and maintained on a background thread, off the request path. A book change
+ * recomputes its own list and only those lists it enters or leaves: lists that hold it, and lists
+ * of its candidates where its new score beats the current K-th entry. Changes that arrive while an
+ * update is pending join it, so the worker queue holds at most one update and one rebuild. A tag
+ * crossing the cap only reaches the lists of other books on the next rebuild.
+ */
+@Service
+public class SimilarBooksIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarBooksIndex.class);
+
+    // Best first; ties go to the lower id so lists are stable across rebuilds
+    private static final Comparator<Neighbour> RANK_ORDER =
+            Comparator.comparingDouble(Neighbour::score).reversed().thenComparingLong(Neighbour::id);
+
+    private final BookRepository bookRepository;
+
+    private final int topK;
+    private final int maxTagBooks;
+    private final double tagWeight;
+    private final double authorWeight;
+    private final double genreWeight;
+
+    // Only touched by build() and apply(), which are synchronized
+    private final Map<Long, Features> features = new HashMap<>();
+    private final Map<String, Set<Long>> booksByTag = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByAuthor = new HashMap<>();
+    // K-th entry of each full list; a book without one has fewer than K neighbours
+    private final Map<Long, Neighbour> floors = new HashMap<>();
+
+    // Read by resolvers without locking; a rebuild swaps in a complete new map
+    private volatile Map<Long, long[]> similar = new ConcurrentHashMap<>();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "similar-books-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+    private final AtomicBoolean buildScheduled = new AtomicBoolean();
+
+    public SimilarBooksIndex(BookRepository bookRepository,
+                             @Value("${app.similar.top-k:10}") int topK,
+                             @Value("${app.similar.max-tag-books:1000}") int maxTagBooks,
+                             @Value("${app.similar.tag-weight:0.6}") double tagWeight,
+                             @Value("${app.similar.author-weight:0.3}") double authorWeight,
+                             @Value("${app.similar.genre-weight:0.1}") double genreWeight) {
+        this.bookRepository = bookRepository;
+        this.topK = topK;
+        this.maxTagBooks = maxTagBooks;
+        this.tagWeight = tagWeight;
+        this.authorWeight = authorWeight;
+        this.genreWeight = genreWeight;
+    }
+
+    /**
+     * Ids of the books most similar to the given one, best first
+     *
+     * @param first number of books wanted; capped at app.similar.top-k
+     */
+    public List<Long> similarIds(long bookId, int first) {
+        long[] ids = similar.get(bookId);
+        if (ids == null || first <= 0) {
+            return List.of();
+        }
+        int n = Math.min(first, ids.length);
+        Long[] result = new Long[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = ids[i];
+        }
+        return List.of(result);
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    public void scheduleBuild() {
+        if (buildScheduled.compareAndSet(false, true)) {
+            submit(() -> {
+                buildScheduled.set(false);
+                build();
+            });
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getKind() != CatalogChangedEvent.Kind.BOOK || event.getIds().isEmpty()) {
+            return;
+        }
+        pendingIds.addAll(event.getIds());
+        if (updateScheduled.compareAndSet(false, true)) {
+            submit(this::applyPending);
+        }
+    }
+
+    /**
+     * Rebuild every list from the database; runs on the caller's thread
+     */
+    public synchronized void build() {
+        features.clear();
+        booksByTag.clear();
+        booksByAuthor.clear();
+        floors.clear();
+        Map<Long, List<String>> tags = groupTags(bookRepository.findAllTags());
+        for (BookSimilarityRow row : bookRepository.findAllSimilarityRows()) {
+            add(row, tags.getOrDefault(row.getId(), List.of()));
+        }
+        Map<Long, long[]> fresh = new ConcurrentHashMap<>();
+        features.forEach((id, book) -> rank(id, book, fresh));
+        similar = fresh;
+        log.info("Similar books index built: {} books", fresh.size());
+    }
+
+    /**
+     * Wait until the changes published so far are reflected in the lists
+     */
+    public void awaitUpdates() throws InterruptedException, ExecutionException {
+        worker.submit(() -> { }).get();
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    synchronized void apply(Collection<Long> changedIds) {
+        Set<Long> changed = new HashSet<>(changedIds);
+        Set<Long> around = new HashSet<>();
+        for (Long id : changed) {
+            Features old = features.get(id);
+            if (old != null) {
+                around.addAll(neighbours(old));
+                remove(id, old);
+            }
+        }
+        // Ids missing from the result were deleted and are only removed
+        Map<Long, List<String>> tags = groupTags(bookRepository.findTags(changed));
+        Map<Long, Features> updated = new HashMap<>();
+        for (BookSimilarityRow row : bookRepository.findSimilarityRows(changed)) {
+            Features book = add(row, tags.getOrDefault(row.getId(), List.of()));
+            updated.put(row.getId(), book);
+            around.addAll(neighbours(book));
+        }
+
+        Map<Long, long[]> current = similar;
+        Set<Long> stale = new HashSet<>(changed);
+        // A changed book leaves, or moves within, every list that holds it
+        for (Long id : around) {
+            if (!changed.contains(id) && holdsAny(current.get(id), changed)) {
+                stale.add(id);
+            }
+        }
+        // and enters the lists of its candidates where it beats the K-th entry
+        updated.forEach((changedId, book) -> {
+            for (Long id : neighbours(book)) {
+                if (!stale.contains(id)) {
+                    Neighbour floor = floors.get(id);
+                    Neighbour entry = new Neighbour(changedId, score(features.get(id), book));
+                    if (floor == null || RANK_ORDER.compare(entry, floor) < 0) {
+                        stale.add(id);
+                    }
+                }
+            }
+        });
+
+        for (Long id : stale) {
+            Features book = features.get(id);
+            if (book == null) {
+                current.remove(id);
+                floors.remove(id);
+            } else {
+                rank(id, book, current);
+            }
+        }
+    }
+
+    private void applyPending() {
+        // Cleared first, so a change arriving from here on schedules another run instead of being lost
+        updateScheduled.set(false);
+        List<Long> ids = new ArrayList<>(pendingIds);
+        pendingIds.removeAll(ids);
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            apply(ids);
+        } catch (RuntimeException e) {
+            // The index may be half updated; start over from the database
+            log.warn("Similar books update failed, rebuilding", e);
+            build();
+        }
+    }
+
+    private void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Lists keep their last state until the next flush rebuilds them
+                log.warn("Similar books index build failed", e);
+            }
+        });
+    }
+
+    private void rank(long id, Features book, Map<Long, long[]> lists) {
+        List<Neighbour> top = topNeighbours(id, book);
+        lists.put(id, top.stream().mapToLong(Neighbour::id).toArray());
+        if (top.size() < topK) {
+            floors.remove(id);
+        } else {
+            floors.put(id, top.get(topK - 1));
+        }
+    }
+
+    private List<Neighbour> topNeighbours(long id, Features book) {
+        Set<Long> candidates = neighbours(book);
+        candidates.remove(id);
+
+        // Worst of the best K on top, so each candidate costs at most one log(K) step
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(topK + 1, RANK_ORDER.reversed());
+        for (Long candidate : candidates) {
+            best.add(new Neighbour(candidate, score(book, features.get(candidate))));
+            if (best.size() > topK) {
+                best.poll();
+            }
+        }
+        return best.stream().sorted(RANK_ORDER).toList();
+    }
+
+    private double score(Features book, Features other) {
+        int shared = 0;
+        String[] a = book.tags();
+        String[] b = other.tags();
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            int order = a[i].compareTo(b[j]);
+            if (order == 0) {
+                shared++;
+            }
+            if (order <= 0) {
+                i++;
+            }
+            if (order >= 0) {
+                j++;
+            }
+        }
+        int union = a.length + b.length - shared;
+        return (union > 0 ? tagWeight * shared / union : 0)
+                + (book.authorId() == other.authorId() ? authorWeight : 0)
+                + (book.genre() == other.genre() ? genreWeight : 0);
+    }
+
+    // Candidates of the book, itself included: same author, or a tag that is not over the cap
+    private Set<Long> neighbours(Features book) {
+        Set<Long> neighbours = new HashSet<>(booksByAuthor.getOrDefault(book.authorId(), Set.of()));
+        for (String tag : book.tags()) {
+            Set<Long> tagged = booksByTag.getOrDefault(tag, Set.of());
+            if (tagged.size() <= maxTagBooks) {
+                neighbours.addAll(tagged);
+            }
+        }
+        return neighbours;
+    }
+
+    private static boolean holdsAny(long[] list, Set<Long> ids) {
+        if (list != null) {
+            for (long id : list) {
+                if (ids.contains(id)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Features add(BookSimilarityRow row, List<String> tags) {
+        String[] sorted = Set.copyOf(tags).toArray(String[]::new);
+        Arrays.sort(sorted);
+        Features book = new Features(row.getGenre(), row.getAuthorId(), sorted);
+        features.put(row.getId(), book);
+        booksByAuthor.computeIfAbsent(book.authorId(), authorId -> new HashSet<>()).add(row.getId());
+        for (String tag : book.tags()) {
+            booksByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(row.getId());
+        }
+        return book;
+    }
+
+    private void remove(long id, Features book) {
+        features.remove(id);
+        removeFrom(booksByAuthor, book.authorId(), id);
+        for (String tag : book.tags()) {
+            removeFrom(booksByTag, tag, id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> index, K key, long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Map<Long, List<String>> groupTags(List<BookTagRow> rows) {
+        return rows.stream().collect(Collectors.groupingBy(BookTagRow::getBookId,
+                Collectors.mapping(BookTagRow::getTag, Collectors.toList())));
+    }
+
+    // Each tag once and sorted, so shared counts are a merge of the two arrays
+    private record Features(Genre genre, long authorId, String[] tags) {
+    }
+
+    private record Neighbour(long id, double score) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.execution.ReadWriteRoutingInstrumentation;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Exposes the caller identity to the execution layer for read-your-writes pinning
+ * Callers are told apart by their Authorization header, and anonymous callers by their remote
+ * address, so one anonymous mutation does not pin every other anonymous caller to the primary.
+ * Anonymous callers behind the same proxy or NAT still share a key, which errs towards the primary.
+ */
+public class ClientKeyInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String client = clientKey(request);
+        request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(ReadWriteRoutingInstrumentation.CLIENT_KEY, client)).build());
+        return chain.next(request);
+    }
+
+    /**
+     * The key the caller is pinned under after a mutation
+     */
+    public static String clientKey(WebGraphQlRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization != null
+                ? "auth:" + authorization
+                : "addr:" + RemoteAddressFilter.remoteAddress(request);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.scalar.DateTimeScalar;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a GraphQL response map straight to an output stream
+ * Avoids building an intermediate String/byte[] and formats DateTime and BigDecimal values
+ * into a reusable per-thread char buffer instead of allocating a String per value
+ */
+public class GraphQlResponseWriter {
+
+    // Large enough for "+999999999-12-31T23:59:59.999999999" and any long-backed decimal
+    private static final int SCRATCH_SIZE = 48;
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[SCRATCH_SIZE]);
+
+    private final ObjectMapper objectMapper;
+
+    public GraphQlResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serialize the given value (usually {@code ExecutionResult.toSpecification()}) as JSON.
+     * The stream is flushed but not closed.
+     */
+    public void write(Object value, OutputStream out) throws IOException {
+        // Jackson recycles its own output buffers per thread, so the generator itself is cheap
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeValue(generator, value);
+        }
+    }
+
+    private void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String s) {
+            generator.writeString(s);
+        } else if (value instanceof Map<?, ?> map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List<?> list) {
+            generator.writeStartArray();
+            for (int i = 0; i < list.size(); i++) {
+                writeValue(generator, list.get(i));
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Integer i) {
+            generator.writeNumber(i);
+        } else if (value instanceof Long l) {
+            generator.writeNumber(l);
+        } else if (value instanceof Double d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Boolean b) {
+            generator.writeBoolean(b);
+        } else if (value instanceof BigDecimal decimal) {
+            writeBigDecimal(generator, decimal);
+        } else if (value instanceof LocalDateTime dateTime) {
+            writeDateTime(generator, dateTime);
+        } else if (value instanceof BigInteger bigInteger) {
+            generator.writeNumber(bigInteger);
+        } else {
+            // Anything unusual (extension payloads, error locations, ...) goes through Jackson
+            generator.writeObject(value);
+        }
+    }
+
+    /**
+     * Writes a BigDecimal in plain notation, encoding long-backed values digit by digit
+     */
+    private void writeBigDecimal(JsonGenerator generator, BigDecimal decimal) throws IOException {
+        int scale = decimal.scale();
+        if (scale < 0 || scale > 18 || decimal.precision() > 18) {
+            generator.writeNumber(decimal.toPlainString());
+            return;
+        }
+        char[] buf = SCRATCH.get();
+        int len = encodeDecimal(decimal.unscaledValue().longValue(), scale, buf);
+        generator.writeNumber(buf, 0, len);
+    }
+
+    /**
+     * Writes a LocalDateTime in ISO_LOCAL_DATE_TIME form without going through DateTimeFormatter
+     */
+    private void writeDateTime(JsonGenerator generator, LocalDateTime dateTime) throws IOException {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed/expanded years are rare enough to leave to the formatter
+            generator.writeString(DateTimeScalar.format(dateTime));
+            return;
+        }
+        char[] buf = SCRATCH.get();
+        int len = encodeDateTime(dateTime, buf);
+        generator.writeString(buf, 0, len);
+    }
+
+    static int encodeDecimal(long unscaled, int scale, char[] buf) {
+        int pos = 0;
+        if (unscaled < 0) {
+            buf[pos++] = '-';
+            unscaled = -unscaled;
+        }
+        // Write digits right-aligned in the tail of the buffer, then move them into place
+        int end = buf.length;
+        int start = end;
+        int written = 0;
+        do {
+            if (written == scale && scale > 0) {
+                buf[--start] = '.';
+            }
+            buf[--start] = (char) ('0' + (unscaled % 10));
+            unscaled /= 10;
+            written++;
+        } while (unscaled > 0 || written <= scale);
+        int digits = end - start;
+        System.arraycopy(buf, start, buf, pos, digits);
+        return pos + digits;
+    }
+
+    static int encodeDateTime(LocalDateTime dateTime, char[] buf) {
+        int pos = 0;
+        pos = pad(buf, pos, dateTime.getYear(), 4);
+        buf[pos++] = '-';
+        pos = pad(buf, pos, dateTime.getMonthValue(), 2);
+        buf[pos++] = '-';
+        pos = pad(buf, pos, dateTime.getDayOfMonth(), 2);
+        buf[pos++] = 'T';
+        pos = pad(buf, pos, dateTime.getHour(), 2);
+        buf[pos++] = ':';
+        pos = pad(buf, pos, dateTime.getMinute(), 2);
+        buf[pos++] = ':';
+        pos = pad(buf, pos, dateTime.getSecond(), 2);
+        int nano = dateTime.getNano();
+        if (nano > 0) {
+            // Same as ISO_LOCAL_TIME: fraction with trailing zeros stripped
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buf[pos++] = '.';
+            pos = pad(buf, pos, nano, digits);
+        }
+        return pos;
+    }
+
+    private static int pad(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.execution.QueryDeadline;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Ties each operation's {@link QueryDeadline} to its HTTP request
+ * If the client goes away and the response subscription is cancelled, any statement still
+ * running for the operation is cancelled in PostgreSQL instead of holding a pool connection.
+ */
+public class QueryCancellationInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        QueryDeadline deadline = new QueryDeadline();
+        request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(QueryDeadline.CONTEXT_KEY, deadline)).build());
+        return chain.next(request).doOnCancel(deadline::cancel);
+    }
+}
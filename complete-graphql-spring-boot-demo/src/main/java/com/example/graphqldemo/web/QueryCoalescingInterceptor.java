@@ -0,0 +1,148 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.datasource.PrimaryPinning;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight coalescing of identical in-flight query operations
+ * The first request for a given (normalized document, operation name, variables, caller) key
+ * executes normally; identical requests arriving while it is still running wait for and share
+ * its response instead of running the same SQL again.
+ * Followers give up after maxWait and execute on their own, so a slow leader never stalls them.
+ *
+ * With replica routing on, a caller inside its read-your-writes window is also keyed by its client
+ * key, so it only ever joins its own executions, which are routed to the primary, and never a
+ * replica-routed one started by another caller.
+ */
+public class QueryCoalescingInterceptor implements WebGraphQlInterceptor {
+
+    private final Map<Key, CompletableFuture<WebGraphQlResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration maxWait;
+
+    // Null when replica routing is off and every query reads the primary
+    private final PrimaryPinning primaryPinning;
+
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+    private final Counter fallbackCounter;
+
+    public QueryCoalescingInterceptor(Duration maxWait, PrimaryPinning primaryPinning, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.primaryPinning = primaryPinning;
+        this.executedCounter = meterRegistry.counter("graphql.coalescing.requests", "outcome", "executed");
+        this.coalescedCounter = meterRegistry.counter("graphql.coalescing.requests", "outcome", "coalesced");
+        this.fallbackCounter = meterRegistry.counter("graphql.coalescing.requests", "outcome", "fallback");
+        meterRegistry.gaugeMapSize("graphql.coalescing.in-flight", Tags.empty(), inFlight);
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (!isQuery(request.getDocument())) {
+            return chain.next(request);
+        }
+
+        Key key = new Key(normalize(request.getDocument()), request.getOperationName(),
+                request.getVariables(), caller(request));
+
+        CompletableFuture<WebGraphQlResponse> future = new CompletableFuture<>();
+        CompletableFuture<WebGraphQlResponse> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            // copy() so a follower's cancellation never cancels the shared future
+            return Mono.fromFuture(existing.copy())
+                    .timeout(maxWait)
+                    .doOnNext(response -> coalescedCounter.increment())
+                    .onErrorResume(ex -> {
+                        fallbackCounter.increment();
+                        return chain.next(request);
+                    });
+        }
+
+        executedCounter.increment();
+        return chain.next(request)
+                .doOnNext(future::complete)
+                .doOnError(future::completeExceptionally)
+                .doFinally(signal -> {
+                    inFlight.remove(key, future);
+                    // Cancelled or empty: release any followers so they fall back
+                    future.cancel(false);
+                });
+    }
+
+    /**
+     * Only read operations are coalesced. A document mentioning mutation or subscription
+     * anywhere is passed through, which errs on the side of never sharing a write.
+     */
+    static boolean isQuery(String document) {
+        return !document.contains("mutation") && !document.contains("subscription");
+    }
+
+    /**
+     * Collapse insignificant whitespace and commas outside string literals, so the same
+     * operation formatted differently by different clients maps to the same key
+     */
+    static String normalize(String document) {
+        StringBuilder sb = new StringBuilder(document.length());
+        boolean inString = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < document.length(); i++) {
+            char c = document.charAt(i);
+            if (inString) {
+                sb.append(c);
+                if (c == '\\' && i + 1 < document.length()) {
+                    sb.append(document.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (Character.isWhitespace(c) || c == ',') {
+                pendingSpace = sb.length() > 0;
+            } else if (c == '#') {
+                // Comment runs to end of line
+                while (i + 1 < document.length() && document.charAt(i + 1) != '\n') {
+                    i++;
+                }
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+                inString = c == '"';
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * What the caller is allowed to see must be part of the key, otherwise one caller's
+     * response could be handed to another with different access. So must a pin to the primary,
+     * otherwise a pinned caller could be handed a replica's stale response.
+     */
+    private String caller(WebGraphQlRequest request) {
+        if (primaryPinning != null) {
+            String clientKey = ClientKeyInterceptor.clientKey(request);
+            if (primaryPinning.isPinned(clientKey)) {
+                return "pinned:" + clientKey;
+            }
+        }
+        return Objects.toString(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), "");
+    }
+
+    private record Key(String document, String operationName, Map<String, Object> variables, String caller) {
+    }
+}
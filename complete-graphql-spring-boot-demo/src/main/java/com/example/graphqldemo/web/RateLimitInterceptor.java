@@ -0,0 +1,158 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.config.RateLimitProperties;
+import com.example.graphqldemo.execution.OperationRejectedException;
+import graphql.GraphQLError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-client token-bucket rate limiting, and Retry-After headers for rejected operations
+ * Runs before any other interceptor, so a rejected request is never parsed, coalesced or executed.
+ * Configured API keys get a bucket of their own. Any other request is anonymous and gets the bucket
+ * of its remote address, so made-up keys cannot buy a fresh allowance and one busy anonymous client
+ * cannot use up everyone else's. Anonymous buckets are kept for the most recently seen
+ * app.graphql.rate-limit.max-anonymous-clients addresses; an address evicted from that set starts
+ * over with a full bucket.
+ */
+public class RateLimitInterceptor implements WebGraphQlInterceptor, Ordered {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+
+    // Least recently used first; guarded by its own monitor
+    private final Map<String, TokenBucket> anonymousBuckets;
+    private final RateLimitProperties.Bucket anonymous;
+
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    public RateLimitInterceptor(RateLimitProperties properties, Set<String> apiKeys, MeterRegistry meterRegistry) {
+        for (String apiKey : apiKeys) {
+            RateLimitProperties.Bucket bucket = properties.bucketFor(apiKey);
+            buckets.put(apiKey, new TokenBucket(bucket.getRate(), bucket.getBurst()));
+        }
+        this.anonymous = properties.getAnonymous();
+        // Anonymous buckets are created on demand; a bad setting should still fail at startup
+        TokenBucket.checkLimits(anonymous.getRate(), anonymous.getBurst());
+        int maxAnonymousClients = properties.getMaxAnonymousClients();
+        this.anonymousBuckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxAnonymousClients;
+            }
+        };
+        this.allowedCounter = meterRegistry.counter("graphql.ratelimit.requests", "outcome", "allowed");
+        this.rejectedCounter = meterRegistry.counter("graphql.ratelimit.requests", "outcome", "rejected");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        long waitNanos = bucketFor(request).tryTake();
+        if (waitNanos > 0) {
+            rejectedCounter.increment();
+            OperationRejectedException rejection = new OperationRejectedException(
+                    OperationRejectedException.Reason.RATE_LIMITED, "Rate limit exceeded, retry later",
+                    Duration.ofNanos(waitNanos), null);
+            WebGraphQlResponse response = new WebGraphQlResponse(
+                    new DefaultExecutionGraphQlResponse(request.toExecutionInput(), rejection.toExecutionResult()));
+            setRetryAfter(response, rejection.getRetryAfter());
+            return Mono.just(response);
+        }
+        allowedCounter.increment();
+        return chain.next(request).doOnNext(RateLimitInterceptor::copyRetryHint);
+    }
+
+    private TokenBucket bucketFor(WebGraphQlRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            TokenBucket bucket = buckets.get(authorization.substring(BEARER_PREFIX.length()).trim());
+            if (bucket != null) {
+                return bucket;
+            }
+        }
+        String address = RemoteAddressFilter.remoteAddress(request);
+        synchronized (anonymousBuckets) {
+            return anonymousBuckets.computeIfAbsent(address,
+                    key -> new TokenBucket(anonymous.getRate(), anonymous.getBurst()));
+        }
+    }
+
+    /**
+     * Bulkhead rejections happen during execution; surface their hint as a header too
+     */
+    private static void copyRetryHint(WebGraphQlResponse response) {
+        long retryAfterMs = 0;
+        for (GraphQLError error : response.getExecutionResult().getErrors()) {
+            if (error.getExtensions() != null
+                    && error.getExtensions().get(OperationRejectedException.RETRY_AFTER_EXTENSION) instanceof Number n) {
+                retryAfterMs = Math.max(retryAfterMs, n.longValue());
+            }
+        }
+        if (retryAfterMs > 0) {
+            setRetryAfter(response, Duration.ofMillis(retryAfterMs));
+        }
+    }
+
+    private static void setRetryAfter(WebGraphQlResponse response, Duration retryAfter) {
+        // Whole seconds, rounded up; the error's retryAfterMs extension carries the precise value
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.getResponseHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+    }
+
+    /**
+     * Refills continuously at rate tokens per second, holding at most burst tokens
+     */
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double ratePerSecond, int burst) {
+            checkLimits(ratePerSecond, burst);
+            this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+            this.capacity = burst;
+            this.tokens = burst;
+        }
+
+        static void checkLimits(double ratePerSecond, int burst) {
+            if (ratePerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limits need rate > 0 and burst >= 1");
+            }
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one will be available
+         */
+        synchronized long tryTake() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.graphqldemo.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Records the client's IP address as a request attribute, for interceptors that key state per client
+ * Both GraphQL HTTP handlers, the streaming one and Boot's default, copy request attributes into the
+ * WebGraphQlRequest, so the address is there whichever of them is active.
+ */
+public class RemoteAddressFilter extends OncePerRequestFilter {
+
+    public static final String REMOTE_ADDRESS_ATTRIBUTE = RemoteAddressFilter.class.getName() + ".remoteAddress";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(REMOTE_ADDRESS_ATTRIBUTE, request.getRemoteAddr());
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Client IP address of the request, or "" if unknown
+     */
+    public static String remoteAddress(WebGraphQlRequest request) {
+        return Objects.toString(request.getAttributes().get(REMOTE_ADDRESS_ATTRIBUTE), "");
+    }
+}
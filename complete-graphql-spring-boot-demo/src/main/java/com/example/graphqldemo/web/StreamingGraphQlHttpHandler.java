@@ -0,0 +1,163 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.scalar.DateTimeScalar;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.webmvc.GraphQlHttpHandler;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AlternativeJdkIdGenerator;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL HTTP handler that streams the response body
+ * Replaces the default handler, which hands the whole result map to the message converters.
+ * Here the result is written directly to the servlet output stream by {@link GraphQlResponseWriter}.
+ * A JSON array of operations is accepted as a batch and answered with an array of results.
+ */
+public class StreamingGraphQlHttpHandler extends GraphQlHttpHandler {
+
+    private static final MediaType APPLICATION_GRAPHQL_RESPONSE =
+            MediaType.parseMediaType("application/graphql-response+json");
+
+    private static final List<MediaType> SUPPORTED_MEDIA_TYPES =
+            List.of(APPLICATION_GRAPHQL_RESPONSE, MediaType.APPLICATION_JSON);
+
+    private final IdGenerator idGenerator = new AlternativeJdkIdGenerator();
+
+    private final WebGraphQlHandler graphQlHandler;
+
+    private final GraphQlResponseWriter responseWriter;
+
+    private final int maxBatchSize;
+
+    public StreamingGraphQlHttpHandler(WebGraphQlHandler graphQlHandler, GraphQlResponseWriter responseWriter,
+                                       int maxBatchSize) {
+        super(graphQlHandler);
+        this.graphQlHandler = graphQlHandler;
+        this.responseWriter = responseWriter;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public ServerResponse handleRequest(ServerRequest serverRequest) throws ServletException {
+        Object body = readBody(serverRequest);
+        MediaType contentType = selectResponseMediaType(serverRequest);
+
+        if (body instanceof List<?> operations) {
+            return ServerResponse.async(handleBatch(serverRequest, operations, contentType));
+        }
+
+        WebGraphQlRequest graphQlRequest = createRequest(serverRequest, asOperation(body));
+        Mono<ServerResponse> responseMono = graphQlHandler.handleRequest(graphQlRequest)
+                .map(response -> writeResponse(response.getResponseHeaders(), response.toMap(), contentType));
+
+        return ServerResponse.async(responseMono);
+    }
+
+    /**
+     * Execute a batch of operations and answer with an array of results in request order
+     * Operations run one after another on the request thread, so they share the request's
+     * open EntityManager: an entity loaded by one operation is served from the persistence
+     * context for the rest of the batch instead of being fetched again.
+     */
+    private Mono<ServerResponse> handleBatch(ServerRequest serverRequest, List<?> operations,
+                                             MediaType contentType) {
+        if (operations.isEmpty() || operations.size() > maxBatchSize) {
+            throw new ServerWebInputException(
+                    "GraphQL batch must contain between 1 and " + maxBatchSize + " operations");
+        }
+        HttpHeaders responseHeaders = new HttpHeaders();
+
+        return Flux.fromIterable(operations)
+                .map(StreamingGraphQlHttpHandler::asOperation)
+                .concatMap(operation -> graphQlHandler.handleRequest(createRequest(serverRequest, operation)))
+                .map(response -> {
+                    responseHeaders.addAll(response.getResponseHeaders());
+                    return response.toMap();
+                })
+                .collectList()
+                .map(results -> writeResponse(responseHeaders, results, contentType));
+    }
+
+    /**
+     * Build a WebGraphQlRequest for one operation, marking it for streaming serialization
+     */
+    protected WebGraphQlRequest createRequest(ServerRequest serverRequest, Map<String, Object> body) {
+        WebGraphQlRequest graphQlRequest = new WebGraphQlRequest(
+                serverRequest.uri(), serverRequest.headers().asHttpHeaders(), initCookies(serverRequest),
+                serverRequest.attributes(), body, idGenerator.generateId().toString(),
+                LocaleContextHolder.getLocale());
+
+        // Let DateTime values reach the writer unformatted
+        graphQlRequest.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(DateTimeScalar.RAW_OUTPUT_KEY, true)).build());
+        return graphQlRequest;
+    }
+
+    protected ServerResponse writeResponse(HttpHeaders responseHeaders, Object result, MediaType contentType) {
+        return ServerResponse.ok()
+                .headers(headers -> headers.putAll(responseHeaders))
+                .contentType(contentType)
+                .build((request, servletResponse) -> {
+                    try {
+                        responseWriter.write(result, servletResponse.getOutputStream());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    return null;
+                });
+    }
+
+    private static Object readBody(ServerRequest request) throws ServletException {
+        try {
+            // Jackson yields a Map for a single operation and a List for a batch
+            return request.body(Object.class);
+        } catch (Exception ex) {
+            throw new ServerWebInputException("Unable to read GraphQL request body: " + ex.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asOperation(Object body) {
+        if (!(body instanceof Map)) {
+            throw new ServerWebInputException("Expected a GraphQL operation object but got: " + body);
+        }
+        return (Map<String, Object>) body;
+    }
+
+    protected static MultiValueMap<String, HttpCookie> initCookies(ServerRequest serverRequest) {
+        MultiValueMap<String, HttpCookie> cookies = new LinkedMultiValueMap<>();
+        for (List<Cookie> values : serverRequest.cookies().values()) {
+            for (Cookie cookie : values) {
+                cookies.add(cookie.getName(), new HttpCookie(cookie.getName(), cookie.getValue()));
+            }
+        }
+        return cookies;
+    }
+
+    protected static MediaType selectResponseMediaType(ServerRequest serverRequest) {
+        for (MediaType accepted : serverRequest.headers().accept()) {
+            if (SUPPORTED_MEDIA_TYPES.contains(accepted)) {
+                return accepted;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
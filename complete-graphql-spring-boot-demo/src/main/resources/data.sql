@@ -13,12 +13,12 @@ INSERT INTO publishers (name, address, website) VALUES
 ('Digital Media Corp', '321 Innovation Blvd, Austin, TX', 'https://digitalmedia.com');
 
 -- Insert sample books
-INSERT INTO books (title, isbn, price, published_date, genre, description, rating, author_id, publisher_id) VALUES
-('Spring Boot Mastery', '978-1234567890', 49.99, '2023-01-15', 'TECHNOLOGY', 'Complete guide to Spring Boot development', 4.5, 3, 1),
-('The Future Chronicles', '978-1234567891', 24.99, '2023-03-20', 'SCIENCE_FICTION', 'A thrilling journey through space and time', 4.2, 2, 2),
-('Mystery at Midnight', '978-1234567892', 19.99, '2023-06-10', 'MYSTERY', 'A gripping mystery novel set in Victorian London', 4.0, 4, 2),
-('GraphQL in Action', '978-1234567893', 54.99, '2023-09-05', 'TECHNOLOGY', 'Learn GraphQL from basics to advanced', 4.7, 3, 1),
-('Digital Revolution', '978-1234567894', 29.99, '2023-11-12', 'NON_FICTION', 'How technology is changing our world', 4.3, 1, 4);
+INSERT INTO books (title, isbn, price, published_date, genre, description, rating, rating_count, author_id, publisher_id) VALUES
+('Spring Boot Mastery', '978-1234567890', 49.99, '2023-01-15', 'TECHNOLOGY', 'Complete guide to Spring Boot development', 4.5, 120, 3, 1),
+('The Future Chronicles', '978-1234567891', 24.99, '2023-03-20', 'SCIENCE_FICTION', 'A thrilling journey through space and time', 4.2, 85, 2, 2),
+('Mystery at Midnight', '978-1234567892', 19.99, '2023-06-10', 'MYSTERY', 'A gripping mystery novel set in Victorian London', 4.0, 64, 4, 2),
+('GraphQL in Action', '978-1234567893', 54.99, '2023-09-05', 'TECHNOLOGY', 'Learn GraphQL from basics to advanced', 4.7, 210, 3, 1),
+('Digital Revolution', '978-1234567894', 29.99, '2023-11-12', 'NON_FICTION', 'How technology is changing our world', 4.3, 42, 1, 4);
 
 -- Insert sample book tags
 INSERT INTO book_tags (book_id, tag) VALUES
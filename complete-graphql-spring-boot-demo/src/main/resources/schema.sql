@@ -1,5 +1,8 @@
 -- Drop existing tables to recreate with correct schema
+-- (dropping book_tag_entries also drops the book_tags view; an older book_tags table goes next)
+DROP TABLE IF EXISTS book_tag_entries CASCADE;
 DROP TABLE IF EXISTS book_tags CASCADE;
+DROP TABLE IF EXISTS book_isbns CASCADE;
 DROP TABLE IF EXISTS books CASCADE;
 DROP TABLE IF EXISTS publishers CASCADE;
 DROP TABLE IF EXISTS authors CASCADE;
@@ -22,26 +25,103 @@ CREATE TABLE IF NOT EXISTS publishers (
     website VARCHAR(255)
 );
 
--- Create Books table
+-- Create Books table, range-partitioned by published_date (yearly partitions are created by
+-- BookPartitionMaintenance; rows outside them land in books_default). Unique constraints on a
+-- partitioned table must include the partition key, so the primary key is (id, published_date)
+-- and global ISBN uniqueness is kept by the book_isbns registry below.
+-- rating is the average rating_sum / rating_count rounded for display; rating flushes add to the
+-- exact sum and count and derive it again, so small moves of a popular book's average are not lost.
 CREATE TABLE IF NOT EXISTS books (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     title VARCHAR(255) NOT NULL,
-    isbn VARCHAR(20) UNIQUE NOT NULL,
+    isbn VARCHAR(20) NOT NULL,
     price DECIMAL(10,2) NOT NULL,
     published_date TIMESTAMP NOT NULL,
     genre VARCHAR(50) NOT NULL,
     description TEXT,
     rating DECIMAL(3,2),
+    rating_sum NUMERIC(14,2),
+    rating_count INTEGER NOT NULL DEFAULT 0,
     author_id BIGINT NOT NULL,
     publisher_id BIGINT NOT NULL,
+    CONSTRAINT pk_books PRIMARY KEY (id, published_date),
     CONSTRAINT fk_book_author FOREIGN KEY (author_id) REFERENCES authors(id),
     CONSTRAINT fk_book_publisher FOREIGN KEY (publisher_id) REFERENCES publishers(id)
+) PARTITION BY RANGE (published_date);
+
+CREATE TABLE IF NOT EXISTS books_default PARTITION OF books DEFAULT;
+
+-- Leaderboard indexes (topBooks cold start and refills)
+CREATE INDEX IF NOT EXISTS idx_books_genre_rating ON books (genre, rating DESC);
+CREATE INDEX IF NOT EXISTS idx_books_genre_published ON books (genre, published_date DESC);
+
+-- ISBN registry: one row per book, enforcing ISBN uniqueness across partitions
+CREATE TABLE IF NOT EXISTS book_isbns (
+    isbn VARCHAR(20) PRIMARY KEY,
+    book_id BIGINT NOT NULL
 );
 
--- Create Book Tags table (for many-to-many relationship)
-CREATE TABLE IF NOT EXISTS book_tags (
+CREATE OR REPLACE FUNCTION sync_book_isbn() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP <> ''INSERT'' THEN
+        DELETE FROM book_isbns WHERE isbn = OLD.isbn AND book_id = OLD.id;
+    END IF;
+    IF TG_OP <> ''DELETE'' THEN
+        INSERT INTO book_isbns (isbn, book_id) VALUES (NEW.isbn, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+';
+
+-- A row moving to another partition fires DELETE then INSERT, which the function handles too
+CREATE TRIGGER trg_books_isbn_insert_delete AFTER INSERT OR DELETE ON books
+    FOR EACH ROW EXECUTE FUNCTION sync_book_isbn();
+CREATE TRIGGER trg_books_isbn_update AFTER UPDATE OF isbn ON books
+    FOR EACH ROW WHEN (OLD.isbn IS DISTINCT FROM NEW.isbn) EXECUTE FUNCTION sync_book_isbn();
+
+-- Create Book Tags storage, partitioned like books so a book and its tags share a partition year
+CREATE TABLE IF NOT EXISTS book_tag_entries (
     book_id BIGINT NOT NULL,
+    published_date TIMESTAMP NOT NULL,
     tag VARCHAR(100) NOT NULL,
-    CONSTRAINT fk_book_tags_book FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE,
-    PRIMARY KEY (book_id, tag)
-);
\ No newline at end of file
+    CONSTRAINT pk_book_tag_entries PRIMARY KEY (book_id, tag, published_date),
+    CONSTRAINT fk_book_tags_book FOREIGN KEY (book_id, published_date)
+        REFERENCES books (id, published_date) ON DELETE CASCADE ON UPDATE CASCADE
+) PARTITION BY RANGE (published_date);
+
+CREATE TABLE IF NOT EXISTS book_tag_entries_default PARTITION OF book_tag_entries DEFAULT;
+
+-- Tag-first access path for tagsAny/tagsAll filters and tag counts (the primary key is book-first)
+CREATE INDEX IF NOT EXISTS idx_book_tags_tag ON book_tag_entries (tag, book_id);
+
+-- book_tags keeps its (book_id, tag) shape for the Book.tags mapping and the SQL that reads it;
+-- writes are redirected to book_tag_entries with the owning book's published_date
+CREATE OR REPLACE VIEW book_tags AS SELECT book_id, tag FROM book_tag_entries;
+
+CREATE OR REPLACE FUNCTION write_book_tags() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        INSERT INTO book_tag_entries (book_id, published_date, tag)
+        SELECT b.id, b.published_date, NEW.tag FROM books b WHERE b.id = NEW.book_id;
+        IF NOT FOUND THEN
+            RAISE foreign_key_violation USING MESSAGE = ''book '' || NEW.book_id || '' does not exist'';
+        END IF;
+        RETURN NEW;
+    END IF;
+    DELETE FROM book_tag_entries WHERE book_id = OLD.book_id AND tag = OLD.tag;
+    RETURN OLD;
+END;
+';
+
+CREATE TRIGGER trg_book_tags_write INSTEAD OF INSERT OR DELETE ON book_tags
+    FOR EACH ROW EXECUTE FUNCTION write_book_tags();
+
+-- Archive a year: detach its partitions (tags first, they reference books) and release its ISBNs.
+-- The detached books_y<year> / book_tag_entries_y<year> tables can then be dumped and dropped.
+CREATE OR REPLACE PROCEDURE detach_books_year(year INTEGER) LANGUAGE plpgsql AS '
+BEGIN
+    EXECUTE format(''DELETE FROM book_isbns k USING %I b WHERE k.book_id = b.id'', ''books_y'' || year);
+    EXECUTE format(''ALTER TABLE book_tag_entries DETACH PARTITION %I'', ''book_tag_entries_y'' || year);
+    EXECUTE format(''ALTER TABLE books DETACH PARTITION %I'', ''books_y'' || year);
+END;
+';
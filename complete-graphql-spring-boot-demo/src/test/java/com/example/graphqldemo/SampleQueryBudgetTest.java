@@ -0,0 +1,303 @@
+package com.example.graphqldemo;
+
+import com.example.graphqldemo.service.AutocompleteIndex;
+import com.example.graphqldemo.service.LeaderboardService;
+import com.example.graphqldemo.service.SimilarBooksIndex;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query budgets for every operation in sample_queries.graphql
+ * Each operation runs over HTTP against the local PostgreSQL (spring.datasource.*, reset at startup
+ * by DatabaseInitializer) with budget-catalog.sql seeded on top, and fails when more SQL statements
+ * reach the DataSource, or Hibernate loads more entities, than the operation's budget allows. Statements
+ * are counted by a test-only wrapper around the application DataSource, so JdbcTemplate ones (bulk
+ * upserts, facet counts, catalog change notifications) count the same as Hibernate's.
+ *
+ * Adding an operation to sample_queries.graphql means declaring its budget here.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.graphql.visibility.api-keys[" + SampleQueryBudgetTest.API_KEY + "]=USER",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        // No background flush may land inside another operation's measurement
+        "app.ratings.flush-interval=PT1H"
+})
+@AutoConfigureHttpGraphQlTester
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SampleQueryBudgetTest {
+
+    static final String API_KEY = "budget-test-key";
+
+    private static final Path SAMPLE_QUERIES = Path.of("sample_queries.graphql");
+
+    /**
+     * Most statements and loaded entities an operation may cost, with the variables it runs with
+     */
+    record Budget(String operation, int statements, int entities, Map<String, Object> variables) {
+        @Override
+        public String toString() {
+            return operation;
+        }
+    }
+
+    private static final List<Budget> BUDGETS = List.of(
+            budget("GetAllBooks", 2, 10),
+            budget("GetBooksWithFilter", 4, 14,
+                    Map.of("limit", 5, "filter", Map.of("genre", "TECHNOLOGY", "minPrice", 20.00))),
+            budget("GetBookWithFragments", 5, 20, Map.of("id", "4")),
+            budget("GetBooksAndAuthorsWithFragments", 10, 249),
+            budget("TopBooks", 2, 7, Map.of("genre", "TECHNOLOGY")),
+            budget("SimilarBooks", 3, 76, Map.of("limit", 20)),
+            budget("BookFacets", 1, 0, Map.of("filter", Map.of("genre", "TECHNOLOGY"))),
+            budget("BooksByTags", 7, 17),
+            budget("SearchEverything", 4, 2, Map.of("query", "GraphQL")),
+            budget("CreateBook", 9, 2, Map.of("input", bookInput("Advanced GraphQL", "978-1234567999", "1"))),
+            budget("CreateAuthor", 4, 0, Map.of("input", Map.of(
+                    "firstName", "Alice", "lastName", "Cooper", "email", "alice.cooper@example.com",
+                    "birthDate", "1990-05-20T08:00:00", "biography", "Emerging technology writer"))),
+            budget("UpdateBook", 10, 3,
+                    Map.of("id", "1", "input", bookInput("Spring Boot Mastery, 2nd Edition", "978-1234567890", "3"))),
+            budget("DeleteBook", 6, 0, Map.of("id", "205")),
+            budget("DeleteBooks", 6, 0, Map.of("ids", List.of("202", "203", "204"))),
+            budget("RateBook", 1, 0, Map.of("bookId", "4", "score", 5.0)),
+            budget("CreateMultipleBooks", 25, 4, Map.of("input", List.of(
+                    bookInput("Batch Book One", "978-2000000001", "1"),
+                    bookInput("Batch Book Two", "978-2000000002", "2"),
+                    bookInput("Batch Book Three", "978-2000000003", "3")))),
+            budget("UpsertBooks", 7, 0, Map.of("input", List.of(
+                    bookInput("Upserted Book", "978-3000000001", "4"),
+                    bookInput("GraphQL in Action", "978-1234567893", "3")))),
+            budget("UpsertAuthors", 3, 0, Map.of("input", List.of(
+                    Map.of("firstName", "Jane", "lastName", "Smith", "email", "jane.smith@example.com"),
+                    Map.of("firstName", "Nora", "lastName", "Quill", "email", "nora.quill@example.com")))),
+            budget("GetAuthorsWithBooks", 7, 264),
+            budget("GetPublishersWithBooks", 6, 262),
+            budget("UsingDeprecatedField", 1, 46),
+            budget("UsingNewFields", 3, 10),
+            budget("UsingDeprecatedQuery", 1, 206),
+            budget("GetFilteredBooks", 7, 23,
+                    Map.of("genre", "TECHNOLOGY", "minPrice", 20.00, "searchQuery", "GraphQL", "withSearch", true)),
+            budget("GetSchemaTypes", 0, 0),
+            budget("Autocomplete", 0, 0, Map.of("prefix", "gra")),
+            budget("GetBookTypeInfo", 0, 0)
+    );
+
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private SimilarBooksIndex similarBooksIndex;
+
+    private Document sampleQueries;
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                        return new StatementCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts every statement created through the DataSource, whichever API issued it
+     */
+    static class StatementCountingDataSource extends DelegatingDataSource {
+
+        private final LongAdder statementCount = new LongAdder();
+
+        StatementCountingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return count(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return count(super.getConnection(username, password));
+        }
+
+        long getStatementCount() {
+            return statementCount.sum();
+        }
+
+        private Connection count(Connection target) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                        if (result instanceof Statement) {
+                            statementCount.increment();
+                        }
+                        return result;
+                    });
+        }
+    }
+
+    @BeforeAll
+    void seedCatalog() throws IOException {
+        new ResourceDatabasePopulator(new ClassPathResource("budget-catalog.sql")).execute(dataSource);
+        // All three were filled from the database when the application became ready, before the seed
+        leaderboardService.loadAll();
+        autocompleteIndex.build();
+        similarBooksIndex.build();
+        sampleQueries = Parser.parse(Files.readString(SAMPLE_QUERIES, StandardCharsets.UTF_8));
+    }
+
+    Stream<Budget> budgets() {
+        return BUDGETS.stream();
+    }
+
+    @Test
+    void everySampleOperationHasABudget() {
+        Set<String> operations = new LinkedHashSet<>();
+        sampleQueries.getDefinitionsOfType(OperationDefinition.class).forEach(op -> operations.add(op.getName()));
+        assertThat(BUDGETS).extracting(Budget::operation).containsExactlyInAnyOrderElementsOf(operations);
+    }
+
+    // Runs in sample file order; the mutations rely on the ids seeded above
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void operationStaysWithinBudget(Budget budget) throws Exception {
+        OperationDefinition operation = sampleQueries.getDefinitionsOfType(OperationDefinition.class).stream()
+                .filter(op -> op.getName().equals(budget.operation()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No operation " + budget.operation() + " in " + SAMPLE_QUERIES));
+
+        StatementCountingDataSource statementCounter = dataSource.unwrap(StatementCountingDataSource.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long statementsBefore = statementCounter.getStatementCount();
+        GraphQlTester.Request<?> request = graphQlTester.mutate()
+                .headers(headers -> headers.setBearerAuth(API_KEY))
+                .build()
+                .document(documentFor(operation))
+                .operationName(budget.operation());
+        budget.variables().forEach(request::variable);
+        GraphQlTester.Response response = request.execute();
+        // Mutations also pay for the similar-books updates they trigger in the background
+        similarBooksIndex.awaitUpdates();
+        long statements = statementCounter.getStatementCount() - statementsBefore;
+        long entities = statistics.getEntityLoadCount();
+
+        response.errors().verify();
+        if (operation.getOperation() == OperationDefinition.Operation.MUTATION) {
+            // Payload errors are data, not GraphQL errors; a failed mutation would pass any budget
+            response.path("$.data..success").entityList(Boolean.class).hasSizeGreaterThan(0)
+                    .satisfies(flags -> assertThat(flags).containsOnly(true));
+        }
+        assertThat(statements).as("%s SQL statements", budget.operation()).isLessThanOrEqualTo(budget.statements());
+        assertThat(entities).as("%s loaded entities (%d lazy, %d collection fetches)", budget.operation(),
+                        statistics.getEntityFetchCount(), statistics.getCollectionFetchCount())
+                .isLessThanOrEqualTo(budget.entities());
+    }
+
+    /**
+     * The operation plus the fragments it uses, directly or through other fragments
+     */
+    private String documentFor(OperationDefinition operation) {
+        Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        sampleQueries.getDefinitionsOfType(FragmentDefinition.class).forEach(f -> fragments.put(f.getName(), f));
+        Set<String> used = new LinkedHashSet<>();
+        collectSpreads(operation, fragments, used);
+
+        StringBuilder document = new StringBuilder(AstPrinter.printAst(operation));
+        used.forEach(name -> document.append('\n').append(AstPrinter.printAst(fragments.get(name))));
+        return document.toString();
+    }
+
+    private static void collectSpreads(Node<?> node, Map<String, FragmentDefinition> fragments, Set<String> used) {
+        if (node instanceof FragmentSpread spread && used.add(spread.getName())) {
+            collectSpreads(fragments.get(spread.getName()), fragments, used);
+        }
+        for (Node<?> child : node.getChildren()) {
+            collectSpreads(child, fragments, used);
+        }
+    }
+
+    private static Budget budget(String operation, int statements, int entities) {
+        return new Budget(operation, statements, entities, Map.of());
+    }
+
+    private static Budget budget(String operation, int statements, int entities, Map<String, Object> variables) {
+        return new Budget(operation, statements, entities, variables);
+    }
+
+    private static Map<String, Object> bookInput(String title, String isbn, String authorId) {
+        return Map.of("title", title, "isbn", isbn, "price", 59.99, "publishedDate", "2024-01-15T10:00:00",
+                "authorId", authorId, "publisherId", "1", "genre", "TECHNOLOGY",
+                "description", "Deep dive into GraphQL advanced concepts");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.graphqldemo.controller;
+
+import com.example.graphqldemo.controller.BookController.BookPayload;
+import com.example.graphqldemo.dto.BookInput;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two writers of one ISBN against the local PostgreSQL: createBook and upsertBooks
+ */
+@SpringBootTest(properties = "app.ratings.flush-interval=PT1H")
+class BookIsbnRaceTest {
+
+    private static final String ISBN = "978-9999999001";
+
+    @Autowired
+    private BookController bookController;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void upsertRacingACreateUpdatesTheNewBook() throws Exception {
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // createBook joins this transaction, which stays open until the upsert is under way
+        CompletableFuture<BookPayload> create = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    BookPayload payload = bookController.createBook(input("Created Title"));
+                    created.countDown();
+                    await(commit);
+                    return payload;
+                }));
+        assertThat(created.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<List<UpsertResult>> upsert =
+                CompletableFuture.supplyAsync(() -> bookRepository.upsertBooks(List.of(input("Upserted Title"))));
+        // Waits on the ISBN lock the create holds
+        assertThatThrownBy(() -> upsert.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        commit.countDown();
+        BookPayload payload = create.get(10, TimeUnit.SECONDS);
+        List<UpsertResult> results = upsert.get(10, TimeUnit.SECONDS);
+
+        assertThat(payload.isSuccess()).isTrue();
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getStatus()).isEqualTo(UpsertStatus.UPDATED);
+            assertThat(result.getId()).isEqualTo(payload.getBook().getId());
+        });
+        assertThat(bookRepository.findById(payload.getBook().getId()))
+                .hasValueSatisfying(book -> assertThat(book.getTitle()).isEqualTo("Upserted Title"));
+    }
+
+    private static BookInput input(String title) {
+        BookInput input = new BookInput();
+        input.setTitle(title);
+        input.setIsbn(ISBN);
+        input.setPrice(new BigDecimal("19.99"));
+        input.setPublishedDate(LocalDateTime.of(2024, 3, 1, 9, 0));
+        input.setGenre(Genre.TECHNOLOGY);
+        input.setAuthorId(1L);
+        input.setPublisherId(1L);
+        return input;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.graphqldemo.execution;
+
+import com.example.graphqldemo.config.BulkheadProperties;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Root fields reached through fragments are classified like plain ones
+ */
+class BulkheadInstrumentationTest {
+
+    private static final String SCHEMA = "type Query { searchBooks: Int bookById: Int }";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{ searchBooks }",
+            "{ found: searchBooks }",
+            "{ ... on Query { searchBooks } }",
+            "{ ...search } fragment search on Query { searchBooks }",
+            "{ ... { ...search } } fragment search on Query { bookById ... on Query { searchBooks } }"
+    })
+    void searchFieldHoldsASearchPermit(String document) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getFields().put("searchBooks", OperationClass.SEARCH);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // The field answers with the number of SEARCH permits held while it resolves
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type
+                        .dataFetcher("searchBooks", environment -> (int) meterRegistry.get("graphql.bulkhead.active")
+                                .tag("class", "search").gauge().value())
+                        .dataFetcher("bookById", environment -> 0))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+        GraphQL graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new BulkheadInstrumentation(properties, meterRegistry))
+                .build();
+
+        ExecutionResult result = graphQL.execute(document);
+
+        assertThat(result.getErrors()).isEmpty();
+        Map<String, Object> data = result.getData();
+        assertThat(data.getOrDefault("searchBooks", data.get("found"))).isEqualTo(1);
+    }
+}
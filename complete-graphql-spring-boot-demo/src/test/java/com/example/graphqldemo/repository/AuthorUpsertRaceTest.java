@@ -0,0 +1,91 @@
+package com.example.graphqldemo.repository;
+
+import com.example.graphqldemo.dto.AuthorInput;
+import com.example.graphqldemo.dto.UpsertResult;
+import com.example.graphqldemo.dto.UpsertStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * An author upsert racing an insert of the same email against the local PostgreSQL
+ */
+@SpringBootTest(properties = "app.ratings.flush-interval=PT1H")
+class AuthorUpsertRaceTest {
+
+    private static final String EMAIL = "race.author@example.com";
+
+    private static final LocalDateTime BIRTH_DATE = LocalDateTime.of(1970, 5, 1, 0, 0);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void upsertRacingAnIdenticalInsertReturnsTheCommittedAuthor() throws Exception {
+        jdbcTemplate.update("DELETE FROM authors WHERE email = ?", EMAIL);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // The insert stays uncommitted until the upsert has taken its snapshot and waits on the email
+        CompletableFuture<Long> insert = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    Long id = jdbcTemplate.queryForObject(
+                            "INSERT INTO authors (first_name, last_name, email, birth_date, biography) " +
+                            "VALUES (?, ?, ?, ?, ?) RETURNING id",
+                            Long.class, "Race", "Author", EMAIL, BIRTH_DATE, "Same values");
+                    inserted.countDown();
+                    await(commit);
+                    return id;
+                }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<List<UpsertResult>> upsert =
+                CompletableFuture.supplyAsync(() -> authorRepository.upsertAuthors(List.of(input())));
+        assertThatThrownBy(() -> upsert.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        commit.countDown();
+        long id = insert.get(10, TimeUnit.SECONDS);
+        List<UpsertResult> results = upsert.get(10, TimeUnit.SECONDS);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getStatus()).isEqualTo(UpsertStatus.UNCHANGED);
+            assertThat(result.getId()).isEqualTo(id);
+        });
+    }
+
+    private static AuthorInput input() {
+        AuthorInput input = new AuthorInput();
+        input.setFirstName("Race");
+        input.setLastName("Author");
+        input.setEmail(EMAIL);
+        input.setBirthDate(BIRTH_DATE);
+        input.setBiography("Same values");
+        return input;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
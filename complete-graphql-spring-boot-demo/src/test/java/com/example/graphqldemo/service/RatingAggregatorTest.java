@@ -0,0 +1,107 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.event.CatalogChangedEvent;
+import com.example.graphqldemo.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Accumulator bookkeeping of the write-behind rating aggregator, against a mocked repository
+ */
+class RatingAggregatorTest {
+
+    private static final long UNKNOWN_BOOK = 404L;
+
+    private BookRepository bookRepository;
+
+    private final List<Object> published = new ArrayList<>();
+
+    private RatingAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.existsById(anyLong())).thenReturn(true);
+        when(bookRepository.existsById(UNKNOWN_BOOK)).thenReturn(false);
+        aggregator = new RatingAggregator(bookRepository, published::add, 4, 2);
+    }
+
+    @Test
+    void newBookCanBeRatedOnceTheCapHasBeenHit() {
+        assertThat(aggregator.rate(1L, 4.0)).isEqualTo(RatingAggregator.Result.ACCEPTED);
+        assertThat(aggregator.rate(2L, 3.0)).isEqualTo(RatingAggregator.Result.ACCEPTED);
+        assertThat(aggregator.rate(3L, 5.0)).isEqualTo(RatingAggregator.Result.BACKLOG);
+
+        // The first flush writes books 1 and 2; the next one finds them idle and drops them
+        aggregator.flush();
+        aggregator.flush();
+        assertThat(aggregator.trackedBooks()).isZero();
+
+        assertThat(aggregator.rate(3L, 5.0)).isEqualTo(RatingAggregator.Result.ACCEPTED);
+        assertThat(aggregator.rate(1L, 2.0)).isEqualTo(RatingAggregator.Result.ACCEPTED);
+        aggregator.flush();
+
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<BigDecimal[]> sums = ArgumentCaptor.forClass(BigDecimal[].class);
+        ArgumentCaptor<Integer[]> counts = ArgumentCaptor.forClass(Integer[].class);
+        verify(bookRepository, times(2)).applyRatings(ids.capture(), sums.capture(), counts.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(counts.getValue()).containsExactly(1, 1);
+    }
+
+    @Test
+    void failedFlushIsRetriedWithTheSameTotals() {
+        doThrow(new IllegalStateException("database down"))
+                .doReturn(1)
+                .when(bookRepository).applyRatings(any(), any(), any());
+        for (int i = 0; i < 3; i++) {
+            aggregator.rate(1L, 5.0);
+        }
+
+        aggregator.flush();
+        aggregator.rate(1L, 1.5);
+        aggregator.flush();
+
+        ArgumentCaptor<BigDecimal[]> sums = ArgumentCaptor.forClass(BigDecimal[].class);
+        ArgumentCaptor<Integer[]> counts = ArgumentCaptor.forClass(Integer[].class);
+        verify(bookRepository, times(2)).applyRatings(any(), sums.capture(), counts.capture());
+        assertThat(sums.getValue()).containsExactly(new BigDecimal("16.50"));
+        assertThat(counts.getValue()).containsExactly(4);
+
+        // Written now, so nothing is left to retry
+        aggregator.flush();
+        verify(bookRepository, times(2)).applyRatings(any(), any(), any());
+    }
+
+    @Test
+    void flushPublishesARatingOnlyChange() {
+        aggregator.rate(1L, 4.0);
+        aggregator.rate(2L, 3.0);
+        aggregator.flush();
+
+        assertThat(published).singleElement().isInstanceOfSatisfying(CatalogChangedEvent.class, event -> {
+            assertThat(event.getKind()).isEqualTo(CatalogChangedEvent.Kind.BOOK_RATING);
+            assertThat(event.getIds()).containsExactlyInAnyOrder(1L, 2L);
+        });
+    }
+
+    @Test
+    void unknownBookIsRejectedWithoutBeingTracked() {
+        assertThat(aggregator.rate(UNKNOWN_BOOK, 4.0)).isEqualTo(RatingAggregator.Result.BOOK_NOT_FOUND);
+        assertThat(aggregator.trackedBooks()).isZero();
+    }
+}
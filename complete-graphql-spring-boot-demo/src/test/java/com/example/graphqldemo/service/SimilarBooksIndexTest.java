@@ -0,0 +1,140 @@
+package com.example.graphqldemo.service;
+
+import com.example.graphqldemo.entity.Genre;
+import com.example.graphqldemo.repository.BookRepository;
+import com.example.graphqldemo.repository.BookSimilarityRow;
+import com.example.graphqldemo.repository.BookTagRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Incremental upkeep of the similar-books lists, against a mocked repository
+ */
+class SimilarBooksIndexTest {
+
+    private static final int TOP_K = 5;
+
+    private static final int MAX_TAG_BOOKS = 40;
+
+    // Far over the cap whatever the changes, so it never crosses it
+    private static final String COMMON_TAG = "common";
+
+    private final Map<Long, Book> catalog = new TreeMap<>();
+
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAllSimilarityRows()).thenAnswer(invocation -> rows(catalog.keySet()));
+        when(bookRepository.findSimilarityRows(any())).thenAnswer(invocation -> rows(invocation.getArgument(0, Collection.class)));
+        when(bookRepository.findAllTags()).thenAnswer(invocation -> tags(catalog.keySet()));
+        when(bookRepository.findTags(any())).thenAnswer(invocation -> tags(invocation.getArgument(0, Collection.class)));
+    }
+
+    @Test
+    void incrementalUpdatesMatchARebuild() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 300; id++) {
+            catalog.put(id, randomBook(random));
+        }
+        SimilarBooksIndex index = index();
+        index.build();
+
+        long nextId = 301;
+        for (int round = 0; round < 50; round++) {
+            List<Long> changed = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                long id = 1 + random.nextInt((int) nextId - 1);
+                switch (random.nextInt(3)) {
+                    case 0 -> catalog.remove(id);
+                    case 1 -> catalog.put(id, randomBook(random));
+                    default -> {
+                        id = nextId++;
+                        catalog.put(id, randomBook(random));
+                    }
+                }
+                changed.add(id);
+            }
+            index.apply(changed);
+
+            SimilarBooksIndex rebuilt = index();
+            rebuilt.build();
+            for (long id = 1; id < nextId; id++) {
+                assertThat(index.similarIds(id, TOP_K)).as("book %d after round %d", id, round)
+                        .isEqualTo(rebuilt.similarIds(id, TOP_K));
+            }
+        }
+    }
+
+    @Test
+    void tagOverTheCapMakesNoCandidates() {
+        for (long id = 1; id <= MAX_TAG_BOOKS + 1; id++) {
+            catalog.put(id, new Book(Genre.FICTION, id, List.of(COMMON_TAG)));
+        }
+        catalog.put(100L, new Book(Genre.HISTORY, 100L, List.of(COMMON_TAG, "rare")));
+        catalog.put(101L, new Book(Genre.HISTORY, 101L, List.of(COMMON_TAG, "rare")));
+        SimilarBooksIndex index = index();
+        index.build();
+
+        assertThat(index.similarIds(1L, TOP_K)).isEmpty();
+        assertThat(index.similarIds(100L, TOP_K)).containsExactly(101L);
+    }
+
+    private SimilarBooksIndex index() {
+        return new SimilarBooksIndex(bookRepository, TOP_K, MAX_TAG_BOOKS, 0.6, 0.3, 0.1);
+    }
+
+    private static Book randomBook(Random random) {
+        List<String> tags = new ArrayList<>(List.of(COMMON_TAG));
+        for (int i = random.nextInt(4); i > 0; i--) {
+            tags.add("tag" + random.nextInt(25));
+        }
+        Genre[] genres = Genre.values();
+        return new Book(genres[random.nextInt(genres.length)], 1L + random.nextInt(40), tags);
+    }
+
+    private List<BookSimilarityRow> rows(Collection<Long> ids) {
+        List<BookSimilarityRow> rows = new ArrayList<>();
+        for (Long id : ids) {
+            Book book = catalog.get(id);
+            if (book != null) {
+                rows.add(new SimilarityRow(id, book.genre(), book.authorId()));
+            }
+        }
+        return rows;
+    }
+
+    private List<BookTagRow> tags(Collection<Long> ids) {
+        List<BookTagRow> rows = new ArrayList<>();
+        for (Long id : ids) {
+            Book book = catalog.get(id);
+            if (book != null) {
+                book.tags().forEach(tag -> rows.add(new TagRow(id, tag)));
+            }
+        }
+        return rows;
+    }
+
+    private record Book(Genre genre, long authorId, List<String> tags) {
+    }
+
+    private record SimilarityRow(Long getId, Genre getGenre, Long getAuthorId) implements BookSimilarityRow {
+    }
+
+    private record TagRow(Long getBookId, String getTag) implements BookTagRow {
+    }
+}
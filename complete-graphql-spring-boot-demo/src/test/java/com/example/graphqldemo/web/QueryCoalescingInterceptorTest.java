@@ -0,0 +1,71 @@
+package com.example.graphqldemo.web;
+
+import com.example.graphqldemo.datasource.PrimaryPinning;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Which anonymous callers may share an in-flight query when replica routing pins writers to the primary
+ */
+class QueryCoalescingInterceptorTest {
+
+    private static final String QUERY = "{ books { id title } }";
+
+    private final PrimaryPinning pinning = new PrimaryPinning(Duration.ofMinutes(1));
+
+    private final QueryCoalescingInterceptor interceptor =
+            new QueryCoalescingInterceptor(Duration.ofSeconds(5), pinning, new SimpleMeterRegistry());
+
+    // Remote addresses of the requests that reached execution
+    private final List<String> executed = new ArrayList<>();
+
+    // Never completes, so the first request stays in flight
+    private final WebGraphQlInterceptor.Chain chain = request -> {
+        executed.add(RemoteAddressFilter.remoteAddress(request));
+        return Sinks.<WebGraphQlResponse>one().asMono();
+    };
+
+    @Test
+    void pinnedCallerDoesNotJoinAnotherCallersQuery() {
+        pinning.pin("addr:10.0.0.2");
+
+        interceptor.intercept(request("10.0.0.1"), chain).subscribe();
+        interceptor.intercept(request("10.0.0.2"), chain).subscribe();
+        interceptor.intercept(request("10.0.0.3"), chain).subscribe();
+
+        // 10.0.0.3 is not pinned and waits on 10.0.0.1's execution
+        assertThat(executed).containsExactly("10.0.0.1", "10.0.0.2");
+    }
+
+    @Test
+    void pinnedCallerJoinsItsOwnQuery() {
+        pinning.pin("addr:10.0.0.2");
+
+        interceptor.intercept(request("10.0.0.2"), chain).subscribe();
+        interceptor.intercept(request("10.0.0.2"), chain).subscribe();
+
+        assertThat(executed).containsExactly("10.0.0.2");
+    }
+
+    private static WebGraphQlRequest request(String remoteAddress) {
+        return new WebGraphQlRequest(URI.create("http://localhost/graphql"), new HttpHeaders(),
+                new LinkedMultiValueMap<>(), Map.of(RemoteAddressFilter.REMOTE_ADDRESS_ATTRIBUTE, remoteAddress),
+                Map.of("query", QUERY), "1", Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,26 @@
+-- Catalog for the query budget tests, added on top of the sample data from DatabaseInitializer.
+-- Large enough that a per-row query (N+1) shows up as dozens of statements, not a handful.
+
+INSERT INTO authors (first_name, last_name, email, birth_date, biography)
+SELECT 'Author' || i, 'Seed' || i, 'author' || i || '@seed.example.com',
+       DATE '1950-01-01' + i * 300, 'Seeded author ' || i
+FROM generate_series(1, 40) AS i;
+
+INSERT INTO publishers (name, address, website)
+SELECT 'Seed Press ' || i, i || ' Seed Street, Springfield', 'https://seed' || i || '.example.com'
+FROM generate_series(1, 8) AS i;
+
+INSERT INTO books (title, isbn, price, published_date, genre, description, rating, rating_count, author_id, publisher_id)
+SELECT 'Seeded Book ' || i, '979-' || lpad(i::text, 10, '0'), 10.99 + i % 50,
+       TIMESTAMP '2001-01-01 09:00:00' + (i * 29 % 9000) * INTERVAL '1 day',
+       (ARRAY['FICTION', 'NON_FICTION', 'SCIENCE_FICTION', 'MYSTERY', 'ROMANCE', 'THRILLER',
+              'BIOGRAPHY', 'HISTORY', 'TECHNOLOGY'])[1 + i % 9],
+       'Seeded book ' || i, 3 + (i % 20) / 10.0, i % 200, 1 + i % 44, 1 + i % 12
+FROM generate_series(1, 200) AS i;
+
+INSERT INTO book_tags (book_id, tag)
+SELECT b.id, t.tag
+FROM books b,
+     LATERAL (VALUES ((ARRAY['Java', 'Spring', 'GraphQL', 'Backend', 'Classic', 'Modern', 'Space', 'Detective'])[1 + b.id % 8]),
+                     ((ARRAY['Java', 'Spring', 'GraphQL', 'Backend', 'Classic', 'Modern', 'Space', 'Detective'])[1 + (b.id * 3 + 1) % 8])) AS t(tag)
+WHERE b.title LIKE 'Seeded Book %';